@@ -0,0 +1,80 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Measures how long it takes to load the dictionary at startup, comparing the
+ * old Scanner and TreeSet path with DictionaryReader and with opening a
+ * precompiled snapshot. Each path is run a number of times in alternation and
+ * the median and fastest times are printed.
+ * <br>
+ * <br>Usage: java DictionaryLoadBenchmark [dictionary file] [rounds]
+ *
+ */
+public class DictionaryLoadBenchmark {
+	private static final String DEFAULT_FILE = "dictionary.txt";
+	private static final int DEFAULT_ROUNDS = 15;
+	private static final double NANOS_PER_MILLI = 1e6;
+
+	// Run the benchmark.
+	public static void main(String[] args) throws IOException {
+		File file = new File(args.length > 0 ? args[0] : DEFAULT_FILE);
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+		long[] scanner = new long[rounds];
+		long[] mapped = new long[rounds];
+		long[] snapshot = new long[rounds];
+		Set<String> expected = null;
+		Set<String> actual = null;
+		File snapshotFile = File.createTempFile("dictionary", ".bin");
+		snapshotFile.deleteOnExit();
+		new HangmanDictionary(DictionaryReader.read(file)).write(snapshotFile);
+		int longest = 0;
+
+		for (int i = 0; i < rounds; i++) {
+			long start = System.nanoTime();
+			expected = scannerRead(file);
+			scanner[i] = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			actual = DictionaryReader.read(file);
+			mapped[i] = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			longest = HangmanDictionary.open(snapshotFile).maxWordLength();
+			snapshot[i] = System.nanoTime() - start;
+		}
+		if (!expected.equals(actual)) {
+			throw new IllegalStateException("The two loaders read different words.");
+		}
+		if (longest != new HangmanDictionary(actual).maxWordLength()) {
+			throw new IllegalStateException("The snapshot does not match the words.");
+		}
+		System.out.println(file + ": " + actual.size() + " distinct words, "
+				+ rounds + " rounds");
+		report("Scanner + TreeSet", scanner);
+		report("DictionaryReader", mapped);
+		report("Snapshot open", snapshot);
+	}
+
+	// the loader HangmanMain used before DictionaryReader
+	private static Set<String> scannerRead(File file) throws IOException {
+		Set<String> dictionary = new TreeSet<>();
+		Scanner input = new Scanner(file);
+		while (input.hasNext()) {
+			dictionary.add(input.next().toLowerCase());
+		}
+		input.close();
+		return dictionary;
+	}
+
+	// prints the median and fastest of the given times
+	private static void report(String name, long[] times) {
+		long[] sorted = times.clone();
+		Arrays.sort(sorted);
+		System.out.printf("%-20s median %8.2f ms   best %8.2f ms%n", name,
+				sorted[sorted.length / 2] / NANOS_PER_MILLI, sorted[0] / NANOS_PER_MILLI);
+	}
+}
@@ -0,0 +1,122 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Reads a dictionary file of whitespace separated words. The file is memory
+ * mapped and split on whitespace bytes directly rather than run through a
+ * Scanner, and ASCII letters are lowercased in place in the word's bytes before
+ * any String is made. Words that contain non ASCII bytes are decoded as UTF-8
+ * and lowercased the usual way.
+ * <br>
+ * <br>The result is a sorted array of distinct words wrapped in a read only
+ * Set, which is much smaller than a TreeSet and cheaper to build.
+ *
+ */
+final class DictionaryReader {
+
+	private DictionaryReader() {
+	}
+
+	/**
+	 * Read the words in the given file. Words are separated by ASCII whitespace.
+	 *
+	 * @param file the dictionary file to read. file != null
+	 * @return an unmodifiable, sorted set of the distinct lowercased words in file
+	 * @throws IOException if the file can not be opened or read
+	 */
+	static Set<String> read(File file) throws IOException {
+		if (file == null) {
+			throw new IllegalArgumentException("The file may not be null.");
+		}
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Dictionary file is too large: " + file);
+			}
+			MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new WordSet(split(bytes));
+		}
+	}
+
+	// splits the mapped bytes into lowercased words, then sorts them and
+	// drops duplicates
+	private static String[] split(MappedByteBuffer bytes) {
+		String[] words = new String[64];
+		int count = 0;
+		byte[] word = new byte[64];
+		int limit = bytes.limit();
+		int i = 0;
+		while (i < limit) {
+			while (i < limit && isWhitespace(bytes.get(i))) {
+				i++;
+			}
+			int length = 0;
+			boolean ascii = true;
+			while (i < limit && !isWhitespace(bytes.get(i))) {
+				byte b = bytes.get(i);
+				if (length == word.length) {
+					word = Arrays.copyOf(word, length * 2);
+				}
+				if ('A' <= b && b <= 'Z') {
+					b |= 0x20;
+				} else if (b < 0) {
+					ascii = false;
+				}
+				word[length++] = b;
+				i++;
+			}
+			if (length > 0) {
+				if (count == words.length) {
+					words = Arrays.copyOf(words, count * 2);
+				}
+				words[count++] = ascii ? new String(word, 0, length, StandardCharsets.ISO_8859_1)
+						: new String(word, 0, length, StandardCharsets.UTF_8).toLowerCase();
+			}
+		}
+		Arrays.sort(words, 0, count);
+		int distinct = 0;
+		for (int j = 0; j < count; j++) {
+			if (distinct == 0 || !words[j].equals(words[distinct - 1])) {
+				words[distinct++] = words[j];
+			}
+		}
+		return Arrays.copyOf(words, distinct);
+	}
+
+	// returns true for the ASCII characters Character.isWhitespace accepts
+	private static boolean isWhitespace(byte b) {
+		return b == ' ' || ('\t' <= b && b <= '\r') || ('\u001C' <= b && b <= '\u001F');
+	}
+
+	// a read only set backed by a sorted array of distinct words
+	private static class WordSet extends AbstractSet<String> {
+		private final String[] words;
+
+		// construct a set from words, which must be sorted and distinct
+		private WordSet(String[] words) {
+			this.words = words;
+		}
+
+		// finds o with a binary search of the sorted words
+		public boolean contains(Object o) {
+			return o instanceof String && Arrays.binarySearch(words, o) >= 0;
+		}
+
+		// iterates in sorted order. the iterator does not support remove
+		public Iterator<String> iterator() {
+			return Arrays.asList(words).iterator();
+		}
+
+		// returns the number of distinct words
+		public int size() {
+			return words.length;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Guesses letters from the one found in the most words of the round's length
+ * to the one found in the fewest, the way a person who knows the dictionary
+ * would. The order only depends on the length, so it is worked out once per
+ * length from the dictionary's letter bitsets and then shared by every game.
+ *
+ */
+public final class FrequencyStrategy implements GuessStrategy {
+	private final HangmanDictionary dictionary;
+	// the letters of each length from most to least common, built when first
+	// needed
+	private final AtomicReferenceArray<String> orders;
+
+	/**
+	 * Create a strategy that orders letters by how common they are in a
+	 * dictionary. pre: dictionary != null
+	 *
+	 * @param dictionary the dictionary the games are played with
+	 */
+	public FrequencyStrategy(HangmanDictionary dictionary) {
+		if (dictionary == null) {
+			throw new IllegalArgumentException("The dictionary may not be null.");
+		}
+		this.dictionary = dictionary;
+		this.orders = new AtomicReferenceArray<String>(dictionary.maxWordLength() + 1);
+	}
+
+	public char nextGuess(HangmanManager game, SplittableRandom random) {
+		int length = game.getPattern().length();
+		String order = orders.get(length);
+		if (order == null) {
+			order = order(dictionary.bucket(length));
+			orders.set(length, order);
+		}
+		int guessed = game.guessedLetters();
+		for (int i = 0; i < order.length(); i++) {
+			if ((guessed & 1 << order.charAt(i) - 'a') == 0) {
+				return order.charAt(i);
+			}
+		}
+		throw new IllegalArgumentException("Every letter has been guessed.");
+	}
+
+	public String toString() {
+		return "frequency";
+	}
+
+	// returns the letters from the one in the most words of bucket to the one
+	// in the fewest, alphabetical when the counts tie
+	private static String order(WordBucket bucket) {
+		long[] counted = new long[WordBucket.LETTERS];
+		for (int letter = 0; letter < WordBucket.LETTERS; letter++) {
+			int words = 0;
+			for (int block = 0; block < bucket.blocks(); block++) {
+				words += Long.bitCount(bucket.bits(bucket.wordsWith(letter), block));
+			}
+			//sorts by count descending, then letter, in one long
+			counted[letter] = (long) (Integer.MAX_VALUE - words) << Integer.SIZE | letter;
+		}
+		Arrays.sort(counted);
+		StringBuilder order = new StringBuilder();
+		for (long entry : counted) {
+			order.append((char) ('a' + (int) entry));
+		}
+		return order.toString();
+	}
+}
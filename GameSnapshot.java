@@ -0,0 +1,75 @@
+/**
+ * The state of a round of a HangmanManager at one moment, which never changes
+ * afterwards. Taking one copies nothing: the snapshot shares the manager's
+ * bitset of live words, and the manager copies the bitset for itself the next
+ * time it would change it. Any number of threads may use a snapshot at once,
+ * while the manager carries on with the game, for example to preview guesses
+ * for hints or to check that a reported outcome was possible.
+ *
+ */
+public final class GameSnapshot {
+	private final WordBucket bucket;
+	// only read, the manager never writes to it once it is shared
+	private final long[] words;
+	private final int liveFrom;
+	private final int liveTo;
+	private final int numLive;
+	private final String pattern;
+	private final int lettersGuessed;
+	private final HangmanDifficulty diff;
+	private final int guessesLeft;
+
+	// construct a snapshot of a round whose live words are the numLive words
+	// in longs liveFrom to liveTo - 1 of words
+	GameSnapshot(WordBucket bucket, long[] words, int liveFrom, int liveTo, int numLive,
+			String pattern, int lettersGuessed, HangmanDifficulty diff, int guessesLeft) {
+		this.bucket = bucket;
+		this.words = words;
+		this.liveFrom = liveFrom;
+		this.liveTo = liveTo;
+		this.numLive = numLive;
+		this.pattern = pattern;
+		this.lettersGuessed = lettersGuessed;
+		this.diff = diff;
+		this.guessesLeft = guessesLeft;
+	}
+
+	/**
+	 * Returns the pattern of the round when the snapshot was taken.
+	 *
+	 * @return the pattern
+	 */
+	public String getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * Returns the number of live words when the snapshot was taken.
+	 *
+	 * @return the number of live words
+	 */
+	public int numWordsCurrent() {
+		return numLive;
+	}
+
+	/**
+	 * Returns the number of wrong guesses left when the snapshot was taken.
+	 *
+	 * @return the number of wrong guesses left
+	 */
+	public int getGuessesLeft() {
+		return guessesLeft;
+	}
+
+	/**
+	 * Work out what makeGuess would have done with a letter when the snapshot
+	 * was taken. pre: 'a' <= guess <= 'z', guess had not been guessed yet
+	 *
+	 * @param guess the letter to preview
+	 * @return the families, pattern and wrong guesses the guess would give
+	 */
+	public GuessPreview previewGuess(char guess) {
+		return HangmanManager.preview(bucket, words, liveFrom, liveTo, pattern, lettersGuessed,
+				diff, guessesLeft, guess);
+	}
+}
@@ -0,0 +1,62 @@
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * What makeGuess would do with a letter, worked out without making the guess:
+ * the families the live words would split into, the pattern that would be
+ * picked, and what it would leave of the round. Made by previewGuess on a
+ * HangmanManager or a GameSnapshot. A GuessPreview never changes.
+ *
+ */
+public final class GuessPreview {
+	private final SortedMap<String, Integer> families;
+	private final String pattern;
+	private final int guessesLeft;
+
+	// construct the preview of a guess that makes families, picks pattern and
+	// leaves guessesLeft wrong guesses
+	GuessPreview(TreeMap<String, Integer> families, String pattern, int guessesLeft) {
+		this.families = Collections.unmodifiableSortedMap(families);
+		this.pattern = pattern;
+		this.guessesLeft = guessesLeft;
+	}
+
+	/**
+	 * Returns each pattern the guess would make and the number of live words
+	 * with it, the same map makeGuess would return.
+	 *
+	 * @return an unmodifiable map from pattern to number of words
+	 */
+	public SortedMap<String, Integer> families() {
+		return families;
+	}
+
+	/**
+	 * Returns the pattern the round would have after the guess.
+	 *
+	 * @return the new pattern
+	 */
+	public String getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * Returns the number of words that would still be live after the guess.
+	 *
+	 * @return the size of the family that would be kept
+	 */
+	public int numWords() {
+		return families.get(pattern);
+	}
+
+	/**
+	 * Returns the number of wrong guesses the player would have left after the
+	 * guess.
+	 *
+	 * @return the number of wrong guesses left
+	 */
+	public int getGuessesLeft() {
+		return guessesLeft;
+	}
+}
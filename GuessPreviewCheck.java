@@ -0,0 +1,105 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Checks that previewGuess agrees with makeGuess. It plays games of random
+ * lengths and difficulties with random guesses, and before every guess
+ * previews each letter not guessed yet and takes a snapshot. The preview of
+ * the letter then guessed must match what makeGuess returns and leaves
+ * behind. Once a game is over, other threads preview every letter again from
+ * each of its snapshots, which must still give the same previews even though
+ * the game has moved on.
+ * <br>
+ * <br>Usage: java GuessPreviewCheck [dictionary file] [games] [seed]
+ *
+ */
+public class GuessPreviewCheck {
+	private static final String DEFAULT_FILE = "dictionary.txt";
+	private static final int DEFAULT_GAMES = 400;
+	private static final int MIN_LENGTH = 3;
+	private static final int MAX_LENGTH = 12;
+	private static final int WRONG_GUESSES = 8;
+	private static final int THREADS = 3;
+
+	// Run the check.
+	public static void main(String[] args) throws IOException, InterruptedException,
+			ExecutionException {
+		File file = new File(args.length > 0 ? args[0] : DEFAULT_FILE);
+		int games = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_GAMES;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+		HangmanDictionary dictionary = new HangmanDictionary(DictionaryReader.read(file));
+		HangmanDifficulty[] difficulties = HangmanDifficulty.values();
+		SplittableRandom random = new SplittableRandom(seed);
+		GuessStrategy strategy = new RandomStrategy();
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		int guesses = 0;
+		try {
+			for (int game = 0; game < games; game++) {
+				int length = MIN_LENGTH + random.nextInt(MAX_LENGTH - MIN_LENGTH + 1);
+				if (dictionary.numWords(length) == 0) {
+					continue;
+				}
+				HangmanManager hangman = new HangmanManager(dictionary, false);
+				hangman.prepForRound(length, WRONG_GUESSES,
+						difficulties[random.nextInt(difficulties.length)]);
+				List<GameSnapshot> snapshots = new ArrayList<GameSnapshot>();
+				List<Integer> guessed = new ArrayList<Integer>();
+				List<String[]> previews = new ArrayList<String[]>();
+				while (hangman.getGuessesLeft() > 0 && hangman.getPattern().indexOf('-') >= 0) {
+					GameSnapshot snapshot = hangman.snapshot();
+					snapshots.add(snapshot);
+					guessed.add(hangman.guessedLetters());
+					previews.add(previewAll(snapshot, hangman.guessedLetters()));
+					char guess = strategy.nextGuess(hangman, random);
+					GuessPreview preview = hangman.previewGuess(guess);
+					if (!hangman.makeGuess(guess).equals(preview.families())
+							|| !hangman.getPattern().equals(preview.getPattern())
+							|| hangman.numWordsCurrent() != preview.numWords()
+							|| hangman.getGuessesLeft() != preview.getGuessesLeft()) {
+						throw new IllegalStateException("The preview of " + guess + " in game "
+								+ game + " does not match makeGuess.");
+					}
+					guesses++;
+				}
+				List<Future<String[]>> again = new ArrayList<Future<String[]>>();
+				for (int i = 0; i < snapshots.size(); i++) {
+					GameSnapshot snapshot = snapshots.get(i);
+					int letters = guessed.get(i);
+					again.add(pool.submit(() -> previewAll(snapshot, letters)));
+				}
+				for (int i = 0; i < again.size(); i++) {
+					if (!Arrays.equals(again.get(i).get(), previews.get(i))) {
+						throw new IllegalStateException("A snapshot of game " + game
+								+ " changed after the game moved on.");
+					}
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+		System.out.println(games + " games, " + guesses + " guesses previewed, seed " + seed
+				+ ": previews match");
+	}
+
+	// returns a description of the preview of every letter not in guessed,
+	// bit i for 'a' + i, from the snapshot. null for the letters in guessed
+	private static String[] previewAll(GameSnapshot snapshot, int guessed) {
+		String[] previews = new String[WordBucket.LETTERS];
+		for (int i = 0; i < previews.length; i++) {
+			if ((guessed & 1 << i) == 0) {
+				GuessPreview preview = snapshot.previewGuess((char) ('a' + i));
+				previews[i] = preview.families() + " " + preview.getPattern() + " "
+						+ preview.numWords() + " " + preview.getGuessesLeft();
+			}
+		}
+		return previews;
+	}
+}
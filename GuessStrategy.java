@@ -0,0 +1,21 @@
+import java.util.SplittableRandom;
+
+/**
+ * A way of picking letters, used by HangmanSimulator to play games without a
+ * person. One strategy plays every game of a simulation, on many threads at
+ * once, so implementations must be safe to call from more than one thread.
+ * Anything a strategy needs to remember belongs in the game it is asked about.
+ *
+ */
+public interface GuessStrategy {
+
+	/**
+	 * Pick the next letter to guess in a round. pre: game != null, random !=
+	 * null, a round is in progress and has letters left to guess
+	 *
+	 * @param game   the game to guess in, which must not be changed
+	 * @param random random numbers for this game alone
+	 * @return a lowercase letter that has not been guessed yet this round
+	 */
+	char nextGuess(HangmanManager game, SplittableRandom random);
+}
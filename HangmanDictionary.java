@@ -0,0 +1,418 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.CRC32;
+
+/**
+ * An immutable dictionary for Hangman with the words grouped by length. A
+ * dictionary is built from a set of words, or opened from a snapshot file that
+ * was written earlier with write.
+ * <br>
+ * <br>A snapshot holds the words already lowercased, deduplicated and sorted,
+ * so opening one maps the file and checks it without parsing anything. The
+ * words are read straight from the mapped file, and the letter masks of a
+ * given length are only built the first time a round of that length is
+ * played. The layout of a snapshot, all ints big endian, is
+ * <br>magic, version, longest word length M, CRC32 of everything after the
+ * header
+ * <br>a table of M + 1 (word count, byte offset) pairs, one per length
+ * <br>the words of each length packed one byte per character with no separators
+ * <br>
+ * <br>For every word the dictionary also keeps a mask of the positions of each
+ * of the 26 letters, so a HangmanManager can tell which family a word falls
+ * into for a guess with one lookup, and bitsets of the words with each letter
+ * at each position, which narrow a set of words to one family with a few
+ * bitwise passes. The masks cost 26 ints per word and the bitsets 26 bits per
+ * letter of the word, which is more than the word itself; footprint reports
+ * the sizes.
+ * <br>
+ * <br>The words of each length are held packed one byte per character in a
+ * single buffer, the same way a snapshot stores them, rather than as one
+ * String object each. The words, masks and bitsets are all kept off the Java
+ * heap, so a large dictionary adds next to nothing to the work of the garbage
+ * collector. Words with a character that does not fit in a byte are also kept
+ * as Strings.
+ * <br>
+ * <br>A dictionary never changes once it is built, so one instance can be shared
+ * by any number of HangmanManagers on any number of threads. The only things
+ * it does update are its caches of what guesses did, which are safe to share
+ * as well. Each HangmanManager only holds the state of its own game.
+ *
+ */
+public final class HangmanDictionary {
+	private static final String[] NO_WORDS = new String[0];
+	private static final int MAGIC = 0x484D414E;
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 4 * Integer.BYTES;
+	private static final int TABLE_ENTRY_BYTES = 2 * Integer.BYTES;
+	private static final int MAX_LATIN_1 = 0xFF;
+	private static final long DEFAULT_OPENING_CACHE_BYTES = 8L << 20;
+	private static final long DEFAULT_TRANSITION_CACHE_BYTES = 16L << 20;
+
+	// words by length, index i holds the bucket of words of length i. when
+	// opened from a snapshot a bucket stays null until its masks are built over
+	// its slice of rows. the atomic array publishes a built bucket safely to
+	// every thread without a lock
+	private final AtomicReferenceArray<WordBucket> wordsByLength;
+	private final int[] counts;
+	private final int[] offsets;
+	// only read with absolute gets, so threads can share it
+	private final ByteBuffer rows;
+	// the first guesses of rounds at index length * 26 + letter index, null
+	// until one is remembered. read without a lock like wordsByLength
+	private final AtomicReferenceArray<OpeningMove> openings;
+	// how many bytes the remembered openings take, and may take
+	private final AtomicLong openingBytes = new AtomicLong();
+	private volatile long openingLimit = DEFAULT_OPENING_CACHE_BYTES;
+	// what later guesses did, keyed by the state they were made from
+	private final TransitionCache transitions =
+			new TransitionCache(DEFAULT_TRANSITION_CACHE_BYTES);
+
+	/**
+	 * Create a new dictionary from the provided set of words. pre: words != null
+	 *
+	 * @param words A set with the words for this dictionary.
+	 */
+	public HangmanDictionary(Set<String> words) {
+		if (words == null) {
+			throw new IllegalArgumentException("The set of words may not be null.");
+		}
+		int[] wordCounts = new int[1];
+		for (String word : words) {
+			if (word.length() >= wordCounts.length) {
+				wordCounts = Arrays.copyOf(wordCounts, word.length() + 1);
+			}
+			wordCounts[word.length()]++;
+		}
+		String[][] index = new String[wordCounts.length][];
+		for (int i = 0; i < wordCounts.length; i++) {
+			index[i] = wordCounts[i] == 0 ? NO_WORDS : new String[wordCounts[i]];
+		}
+		int[] filled = new int[wordCounts.length];
+		for (String word : words) {
+			index[word.length()][filled[word.length()]++] = word;
+		}
+		this.wordsByLength = new AtomicReferenceArray<WordBucket>(wordCounts.length);
+		for (int i = 0; i < wordCounts.length; i++) {
+			wordsByLength.set(i, new WordBucket(i, index[i]));
+		}
+		this.openings = new AtomicReferenceArray<OpeningMove>(
+				wordCounts.length * WordBucket.LETTERS);
+		this.counts = wordCounts;
+		this.offsets = null;
+		this.rows = null;
+	}
+
+	// construct a dictionary over a snapshot whose table has been checked
+	private HangmanDictionary(int[] counts, int[] offsets, ByteBuffer rows) {
+		this.wordsByLength = new AtomicReferenceArray<WordBucket>(counts.length);
+		this.openings = new AtomicReferenceArray<OpeningMove>(counts.length * WordBucket.LETTERS);
+		this.counts = counts;
+		this.offsets = offsets;
+		this.rows = rows;
+	}
+
+	/**
+	 * Open a dictionary snapshot written by write. The file is mapped read only
+	 * and its checksum verified, but no words are decoded yet.
+	 *
+	 * @param file the snapshot file. file != null
+	 * @return the dictionary stored in file
+	 * @throws IOException if file can not be read or is not a valid snapshot
+	 */
+	public static HangmanDictionary open(File file) throws IOException {
+		if (file == null) {
+			throw new IllegalArgumentException("The file may not be null.");
+		}
+		MappedByteBuffer bytes;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Dictionary snapshot is too large: " + file);
+			}
+			bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		int size = bytes.limit();
+		if (size < HEADER_BYTES || bytes.getInt(0) != MAGIC) {
+			throw new IOException(file + " is not a dictionary snapshot.");
+		}
+		if (bytes.getInt(Integer.BYTES) != VERSION) {
+			throw new IOException(file + " has unsupported snapshot version "
+					+ bytes.getInt(Integer.BYTES) + ".");
+		}
+		int maxLength = bytes.getInt(2 * Integer.BYTES);
+		if (maxLength < 0 || (size - HEADER_BYTES) / TABLE_ENTRY_BYTES <= maxLength) {
+			throw new IOException(file + " has a damaged length table.");
+		}
+		CRC32 crc = new CRC32();
+		crc.update(bytes.slice(HEADER_BYTES, size - HEADER_BYTES));
+		if ((int) crc.getValue() != bytes.getInt(3 * Integer.BYTES)) {
+			throw new IOException(file + " failed its checksum.");
+		}
+
+		int[] counts = new int[maxLength + 1];
+		int[] offsets = new int[maxLength + 1];
+		for (int length = 0; length <= maxLength; length++) {
+			int entry = HEADER_BYTES + length * TABLE_ENTRY_BYTES;
+			counts[length] = bytes.getInt(entry);
+			offsets[length] = bytes.getInt(entry + Integer.BYTES);
+			long end = offsets[length] + (long) counts[length] * length;
+			if (counts[length] < 0 || offsets[length] < 0 || end > size) {
+				throw new IOException(file + " has a damaged length table.");
+			}
+		}
+		return new HangmanDictionary(counts, offsets, bytes);
+	}
+
+	/**
+	 * Write this dictionary to a snapshot file that open can read back. The words
+	 * of each length are stored in sorted order.
+	 *
+	 * @param file the file to create or replace. file != null
+	 * @throws IOException if file can not be written, or a word has a character
+	 *                     that does not fit in one byte
+	 */
+	public void write(File file) throws IOException {
+		if (file == null) {
+			throw new IllegalArgumentException("The file may not be null.");
+		}
+		int maxLength = maxWordLength();
+		long size = HEADER_BYTES + (long) (maxLength + 1) * TABLE_ENTRY_BYTES;
+		for (int length = 0; length <= maxLength; length++) {
+			size += (long) counts[length] * length;
+		}
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("Dictionary is too large for a snapshot.");
+		}
+
+		ByteBuffer out = ByteBuffer.allocate((int) size);
+		out.putInt(MAGIC).putInt(VERSION).putInt(maxLength).putInt(0);
+		int offset = HEADER_BYTES + (maxLength + 1) * TABLE_ENTRY_BYTES;
+		for (int length = 0; length <= maxLength; length++) {
+			out.putInt(counts[length]).putInt(offset);
+			offset += counts[length] * length;
+		}
+		for (int length = 0; length <= maxLength; length++) {
+			WordBucket bucket = bucket(length);
+			String[] sorted = new String[bucket.size()];
+			for (int i = 0; i < sorted.length; i++) {
+				sorted[i] = bucket.word(i);
+			}
+			Arrays.sort(sorted);
+			for (String word : sorted) {
+				for (int i = 0; i < length; i++) {
+					char ch = word.charAt(i);
+					if (ch > MAX_LATIN_1) {
+						throw new IOException("The word " + word
+								+ " can not be stored in a snapshot.");
+					}
+					out.put((byte) ch);
+				}
+			}
+		}
+		CRC32 crc = new CRC32();
+		crc.update(out.array(), HEADER_BYTES, out.capacity() - HEADER_BYTES);
+		out.putInt(3 * Integer.BYTES, (int) crc.getValue());
+		out.flip();
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (out.hasRemaining()) {
+				channel.write(out);
+			}
+		}
+	}
+
+	/**
+	 * Get the number of words in this dictionary of the given length. pre: none
+	 *
+	 * @param length The given length to check.
+	 * @return the number of words with the given length
+	 */
+	public int numWords(int length) {
+		if (length < 0 || length >= counts.length) {
+			return 0;
+		}
+		return counts[length];
+	}
+
+	/**
+	 * Get the length of the longest word in this dictionary. pre: none
+	 *
+	 * @return the length of the longest word, 0 if the dictionary is empty
+	 */
+	public int maxWordLength() {
+		return counts.length - 1;
+	}
+
+	/**
+	 * Describe how much memory the words of each length take, packed as bytes,
+	 * as the letter masks that let makeGuess find a word's family without
+	 * scanning it, and as the bitsets of the inverted index of letters by
+	 * position. All of it is off the Java heap. Words kept as Strings because
+	 * they do not fit in a byte per character are left out. A snapshot's masks
+	 * and bitsets are only built for the lengths that have been played, but the
+	 * report counts every length.
+	 *
+	 * @return one line per word length that has words, then a line of totals
+	 */
+	public String footprint() {
+		StringBuilder report = new StringBuilder(String.format("%6s %10s %14s %14s %14s%n",
+				"length", "words", "word bytes", "mask bytes", "index bytes"));
+		long words = 0;
+		long wordBytes = 0;
+		long maskBytes = 0;
+		long indexBytes = 0;
+		for (int length = 0; length < counts.length; length++) {
+			if (counts[length] > 0) {
+				long lengthWordBytes = WordBucket.wordBytes(counts[length], length);
+				long lengthMaskBytes = WordBucket.maskBytes(counts[length], length);
+				long lengthIndexBytes = WordBucket.indexBytes(counts[length], length);
+				report.append(String.format("%6d %10d %14d %14d %14d%n", length, 
+						counts[length], lengthWordBytes, lengthMaskBytes, lengthIndexBytes));
+				words += counts[length];
+				wordBytes += lengthWordBytes;
+				maskBytes += lengthMaskBytes;
+				indexBytes += lengthIndexBytes;
+			}
+		}
+		report.append(String.format("%6s %10d %14d %14d %14d%n", "total", words, wordBytes,
+				maskBytes, indexBytes));
+		return report.toString();
+	}
+
+	/**
+	 * Set how much memory may go to remembering the first guesses of rounds. The
+	 * first guess of a letter at a word length always splits the words the same
+	 * way, so the dictionary keeps the ones played for every HangmanManager
+	 * that plays with it until they fill the limit, and those guesses do not
+	 * have to look at the words again. Lowering the limit below what the
+	 * openings take drops them all. The default is 8 MB, which holds every
+	 * opening of most dictionaries. pre: bytes >= 0
+	 *
+	 * @param bytes roughly how many bytes of heap the openings may take, 0 to
+	 *              not keep any
+	 */
+	public void setOpeningCacheLimit(long bytes) {
+		if (bytes < 0) {
+			throw new IllegalArgumentException("The limit may not be negative.");
+		}
+		openingLimit = bytes;
+		if (openingBytes.get() > bytes) {
+			for (int i = 0; i < openings.length(); i++) {
+				OpeningMove dropped = openings.getAndSet(i, null);
+				if (dropped != null) {
+					openingBytes.addAndGet(-dropped.bytes());
+				}
+			}
+		}
+	}
+
+	// returns the remembered first guess of the given letter index at the
+	// given length, or null if there is none
+	OpeningMove opening(int length, int letter) {
+		return openings.get(length * WordBucket.LETTERS + letter);
+	}
+
+	// remembers the first guess of the given letter index at the given length
+	// if it fits under the limit. if two threads race to remember the same
+	// one the first is kept
+	void rememberOpening(int length, int letter, OpeningMove move) {
+		long bytes = move.bytes();
+		if (openingBytes.addAndGet(bytes) > openingLimit
+				|| !openings.compareAndSet(length * WordBucket.LETTERS + letter, null, move)) {
+			openingBytes.addAndGet(-bytes);
+		}
+	}
+
+	/**
+	 * Set how much memory may go to remembering the guesses after the first in a
+	 * round. Once some letters are guessed the words left in a round depend only
+	 * on the pattern and the letters guessed, so the families a new guess makes
+	 * and the pattern chosen from them depend only on those, the difficulty and
+	 * the new letter. The dictionary keeps the recently used ones for every
+	 * HangmanManager that plays with it, which then only narrows its words to
+	 * the remembered family. Looking one up takes no lock, so games on other
+	 * threads do not wait on each other. The default is 16 MB. pre: bytes >= 0
+	 *
+	 * @param bytes roughly how many bytes of heap the guesses may take, 0 to not
+	 *              keep any
+	 */
+	public void setTransitionCacheLimit(long bytes) {
+		if (bytes < 0) {
+			throw new IllegalArgumentException("The limit may not be negative.");
+		}
+		transitions.setLimit(bytes);
+	}
+
+	/**
+	 * Returns how many guesses found what they do already remembered.
+	 *
+	 * @return the number of hits in the cache of guesses
+	 */
+	public long transitionCacheHits() {
+		return transitions.hits();
+	}
+
+	/**
+	 * Returns how many guesses were looked up and not remembered, so were
+	 * worked out from the words.
+	 *
+	 * @return the number of misses in the cache of guesses
+	 */
+	public long transitionCacheMisses() {
+		return transitions.misses();
+	}
+
+	/**
+	 * Returns how many remembered guesses have been dropped to stay under the
+	 * limit.
+	 *
+	 * @return the number of evictions from the cache of guesses
+	 */
+	public long transitionCacheEvictions() {
+		return transitions.evictions();
+	}
+
+	/**
+	 * Returns roughly how many bytes of heap the remembered guesses take.
+	 *
+	 * @return the size of the cache of guesses
+	 */
+	public long transitionCacheBytes() {
+		return transitions.bytes();
+	}
+
+	// returns the cache of guesses after the first of a round
+	TransitionCache transitions() {
+		return transitions;
+	}
+
+	// returns the bucket of words of the given length, which is empty if there
+	// are none. if two threads race to build the same bucket both get
+	// whichever copy was stored first
+	WordBucket bucket(int length) {
+		if (numWords(length) == 0) {
+			return WordBucket.EMPTY;
+		}
+		WordBucket bucket = wordsByLength.get(length);
+		if (bucket == null) {
+			wordsByLength.compareAndSet(length, null, decode(length));
+			bucket = wordsByLength.get(length);
+		}
+		return bucket;
+	}
+
+	// makes a bucket that reads the words of one length straight from the
+	// packed snapshot bytes
+	private WordBucket decode(int length) {
+		return new WordBucket(length, counts[length], 
+				rows.slice(offsets[length], counts[length] * length));
+	}
+}
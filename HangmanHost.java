@@ -0,0 +1,118 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Hosts many games of Hangman at once, one session per connected player. Every
+ * session gets its own HangmanManager over one shared HangmanDictionary and runs
+ * the same game loop as HangmanMain on its own thread.
+ * <br>
+ * <br>On Java 21 and later each session runs on a virtual thread, so a player
+ * who is thinking about their next guess costs a parked continuation rather
+ * than an operating system thread. Older runtimes fall back to one platform
+ * thread per session.
+ * <br>
+ * <br>Usage: java HangmanHost [port], then connect with any line based client
+ * such as nc localhost 4314. The host only listens on the loopback address.
+ *
+ */
+public class HangmanHost {
+	private static final int DEFAULT_PORT = 4314;
+
+	private final HangmanDictionary dictionary;
+	private final ExecutorService sessions;
+
+	/**
+	 * Create a host that plays with the words in the given dictionary.
+	 * pre: dictionary != null
+	 *
+	 * @param dictionary the dictionary every session shares
+	 */
+	public HangmanHost(HangmanDictionary dictionary) {
+		if (dictionary == null) {
+			throw new IllegalArgumentException("The dictionary may not be null.");
+		}
+		this.dictionary = dictionary;
+		this.sessions = newSessionExecutor();
+	}
+
+	// Run a host on the loopback address until the process is stopped.
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		HangmanHost host = new HangmanHost(HangmanMain.getDictionary());
+		System.out.println("Hosting hangman on port " + port + ".");
+		host.serve(port);
+	}
+
+	/**
+	 * Start a session with the player on the other end of a channel. The
+	 * channel is closed when the player quits or disconnects.
+	 * pre: io != null
+	 *
+	 * @param io the channel connected to the player
+	 * @return a Future that is done once the session has ended
+	 */
+	public Future<?> start(LineChannel io) {
+		if (io == null) {
+			throw new IllegalArgumentException("The channel may not be null.");
+		}
+		return sessions.submit(() -> runSession(io));
+	}
+
+	/**
+	 * Accept players on a local socket and start a session for each one. This
+	 * method does not return unless accepting fails.
+	 *
+	 * @param port the port to listen on, 0 for any free port
+	 * @throws IOException if the socket can not be opened or accept fails
+	 */
+	public void serve(int port) throws IOException {
+		try (ServerSocket server = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+			while (true) {
+				Socket player = server.accept();
+				start(new StreamLineChannel(player.getInputStream(), player.getOutputStream()));
+			}
+		}
+	}
+
+	/**
+	 * Stop accepting sessions. Sessions already running are allowed to finish.
+	 */
+	public void shutdown() {
+		sessions.shutdown();
+	}
+
+	// plays games with one player until they quit or their channel fails
+	private void runSession(LineChannel io) {
+		try {
+			HangmanMain.play(new HangmanManager(dictionary, false), io);
+		} catch (EOFException e) {
+			// the player left, which is the same as quitting
+		} catch (IOException | RuntimeException e) {
+			System.out.println("Session ended: " + e);
+		} finally {
+			io.close();
+		}
+	}
+
+	// returns an executor that runs each task on a new virtual thread when the
+	// runtime has them, otherwise on a pooled daemon thread
+	static ExecutorService newSessionExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool(task -> {
+				Thread thread = new Thread(task, "hangman-session");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+}
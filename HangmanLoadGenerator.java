@@ -0,0 +1,157 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Drives simulated players through a HangmanHost over in memory pipes and
+ * reports throughput and guess latency. Each player answers the same prompts a
+ * person would, guessing letters from most to least common in English, and
+ * plays a fixed number of games before quitting. Guess latency is the time from
+ * sending a guess to receiving the host's next prompt.
+ * <br>
+ * <br>Usage: java HangmanLoadGenerator [players] [games per player] [seed]
+ *
+ */
+public class HangmanLoadGenerator {
+	private static final int DEFAULT_PLAYERS = 1000;
+	private static final int DEFAULT_GAMES = 5;
+	private static final int MIN_LENGTH = 4;
+	private static final int MAX_LENGTH = 12;
+	private static final int MAX_WRONG_GUESSES = 10;
+	private static final String LETTERS = "etaoinshrdlcumwfgypbvkjxqz";
+	private static final double NANOS_PER_MICRO = 1e3;
+	private static final double NANOS_PER_SECOND = 1e9;
+	private static final double P50 = 0.50;
+	private static final double P99 = 0.99;
+
+	// Run the load test.
+	public static void main(String[] args) throws Exception {
+		int players = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PLAYERS;
+		int games = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_GAMES;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+
+		HangmanDictionary dictionary = HangmanMain.getDictionary();
+		List<Integer> lengths = new ArrayList<Integer>();
+		for (int length = MIN_LENGTH; length <= MAX_LENGTH; length++) {
+			if (dictionary.numWords(length) > 0) {
+				lengths.add(length);
+			}
+		}
+		if (lengths.isEmpty()) {
+			System.out.println("The dictionary has no words of " + MIN_LENGTH + " to "
+					+ MAX_LENGTH + " letters.");
+			return;
+		}
+
+		HangmanHost host = new HangmanHost(dictionary);
+		ExecutorService playerThreads = HangmanHost.newSessionExecutor();
+		List<Future<long[]>> results = new ArrayList<Future<long[]>>();
+		long start = System.nanoTime();
+		for (int i = 0; i < players; i++) {
+			MemoryLineChannel[] pipe = MemoryLineChannel.pair();
+			host.start(pipe[0]);
+			results.add(playerThreads.submit(new Player(pipe[1], games, lengths, 
+					new Random(seed + i))));
+		}
+		long[][] latencies = new long[players][];
+		int guesses = 0;
+		for (int i = 0; i < players; i++) {
+			latencies[i] = results.get(i).get();
+			guesses += latencies[i].length;
+		}
+		long elapsed = System.nanoTime() - start;
+		host.shutdown();
+		playerThreads.shutdown();
+
+		long[] all = new long[guesses];
+		int filled = 0;
+		for (long[] player : latencies) {
+			System.arraycopy(player, 0, all, filled, player.length);
+			filled += player.length;
+		}
+		Arrays.sort(all);
+		double seconds = elapsed / NANOS_PER_SECOND;
+		System.out.println(players + " players, " + players * games + " games, " 
+				+ guesses + " guesses in " + String.format("%.2f", seconds) + " s");
+		System.out.printf("throughput  %10.1f games/s  %10.1f guesses/s%n", 
+				players * games / seconds, guesses / seconds);
+		System.out.printf("guess latency  p50 %8.1f us  p99 %8.1f us  max %8.1f us%n",
+				percentile(all, P50) / NANOS_PER_MICRO, percentile(all, P99) / NANOS_PER_MICRO,
+				(all.length == 0 ? 0 : all[all.length - 1]) / NANOS_PER_MICRO);
+	}
+
+	// returns the value at the given fraction of the sorted times, 0 if empty
+	private static long percentile(long[] sorted, double fraction) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		return sorted[(int) Math.min(sorted.length - 1, (long) (fraction * sorted.length))];
+	}
+
+	// a simulated player that answers the host's prompts and times its guesses
+	private static class Player implements Callable<long[]> {
+		private final LineChannel io;
+		private final int games;
+		private final List<Integer> lengths;
+		private final Random random;
+		private long[] latencies;
+		private int numLatencies;
+
+		// construct a player that plays the given number of games over io
+		private Player(LineChannel io, int games, List<Integer> lengths, Random random) {
+			this.io = io;
+			this.games = games;
+			this.lengths = lengths;
+			this.random = random;
+			this.latencies = new long[LETTERS.length() * games];
+		}
+
+		// plays all the games, then returns the latency of every guess
+		public long[] call() throws IOException {
+			int gamesPlayed = 0;
+			int nextLetter = 0;
+			long guessSent = -1;
+			try {
+				while (gamesPlayed < games) {
+					String line = io.readLine();
+					if (guessSent >= 0 && (line.startsWith("Your guess?") 
+							|| line.startsWith("Another game?"))) {
+						record(System.nanoTime() - guessSent);
+						guessSent = -1;
+					}
+					if (line.startsWith("What length")) {
+						io.println("" + lengths.get(random.nextInt(lengths.size())));
+						nextLetter = 0;
+					} else if (line.startsWith("How many wrong")) {
+						io.println("" + (1 + random.nextInt(MAX_WRONG_GUESSES)));
+					} else if (line.startsWith("Enter a number between")) {
+						io.println("" + (HangmanDifficulty.minPossible() + random.nextInt(
+								HangmanDifficulty.maxPossible())));
+					} else if (line.startsWith("Your guess?")) {
+						io.println("" + LETTERS.charAt(nextLetter++));
+						guessSent = System.nanoTime();
+					} else if (line.startsWith("Another game?")) {
+						gamesPlayed++;
+						io.println(gamesPlayed < games ? "y" : "n");
+					}
+				}
+			} finally {
+				io.close();
+			}
+			return Arrays.copyOf(latencies, numLatencies);
+		}
+
+		// adds one guess latency
+		private void record(long nanos) {
+			if (numLatencies == latencies.length) {
+				latencies = Arrays.copyOf(latencies, numLatencies * 2 + 1);
+			}
+			latencies[numLatencies++] = nanos;
+		}
+	}
+}
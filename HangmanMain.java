@@ -1,10 +1,10 @@
+import java.io.EOFException;
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.Collections;
-import java.util.Scanner;
-import java.util.Set;
 import java.util.TreeMap;
-import java.util.TreeSet;
+
+import javax.management.JMException;
 
 /**
  *  Class HangmanMain is the driver program for the Hangman program.  It reads 
@@ -25,43 +25,101 @@ public class HangmanMain  {
     /* Name of the dictionary file. 
        change to dictionary.txt for full version of game. */
     private static final String DICTIONARY_FILE = "dictionary.txt";
+    /* Name of the precompiled dictionary. It is used instead of the
+       dictionary file when it is at least as new. */
+    private static final String SNAPSHOT_FILE = "dictionary.bin";
+    private static final String COMPILE_OPTION = "--compile";
+    private static final String FOOTPRINT_OPTION = "--footprint";
+    private static final String METRICS_OPTION = "--metrics";
     // Used to tell HangmanManager if it should output debugging information.
     private static final boolean DEBUG = false;  
     private static final int MAX_GUESSES = 25;
 
-	// Run the game with a human user.
+	// Run the game with a human user, or with --compile [text file]
+    // [snapshot file] precompile the dictionary and quit, or with 
+    // --footprint show how much memory the dictionary takes and quit, or with
+    // --metrics play while measuring the game over JMX and show the
+    // measurements at the end.
     public static void main(String[] args) {
-        System.out.println("Welcome to the CS314 hangman game.");
-        System.out.println();
-
+        if (args.length > 0 && args[0].equals(COMPILE_OPTION)) {
+            compileDictionary(args.length > 1 ? args[1] : DICTIONARY_FILE,
+                    args.length > 2 ? args[2] : SNAPSHOT_FILE);
+            return;
+        }
+        if (args.length > 0 && args[0].equals(FOOTPRINT_OPTION)) {
+            System.out.print(getDictionary().footprint());
+            return;
+        }
         // read in the dictionary and create the Hangman manager
-        Set<String> dictionary = getDictionary();
+        HangmanDictionary dictionary = getDictionary();
         HangmanManager hangman = new HangmanManager(dictionary, DEBUG);
+        RecordingMetrics metrics = null;
+        if (args.length > 0 && args[0].equals(METRICS_OPTION)) {
+            metrics = new RecordingMetrics();
+            hangman.setMetrics(metrics);
+            try {
+                metrics.register("main");
+            } catch (JMException e) {
+                e.printStackTrace();
+            }
+        }
+
+        LineChannel keyboard = new StreamLineChannel(System.in, System.out);
+        try {
+            play(hangman, keyboard);
+        } catch (EOFException e) {
+            // the user closed standard input, which is the same as quitting
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            // the channel closes System.out, so the measurements go first
+            if (metrics != null) {
+                keyboard.println();
+                keyboard.print(metrics.dump());
+            }
+            keyboard.close();
+        }
+    }
+
+
+    /**
+     * Play games of Hangman with one user over a channel until they want to
+     * quit. HangmanHost calls this once per connected player.
+     * pre: hangman != null, io != null
+     * @param hangman the manager for this user's games
+     * @param io the channel connected to the user
+     * @throws IOException if the user's channel fails or is closed
+     */
+    static void play(HangmanManager hangman, LineChannel io) throws IOException {
+        if (hangman == null || io == null) {
+            throw new IllegalArgumentException("Parameters to method may not be null.");
+        }
+        io.println("Welcome to the CS314 hangman game.");
+        io.println();
         if (DEBUG) {
-            showWordCounts(hangman);
+            showWordCounts(io, hangman);
         }
 
-        Scanner keyboard = new Scanner(System.in);
         // play games until user wants to quit
         do {
-            setGameParameters(hangman, keyboard);
-            playGame(keyboard, hangman);
-            showResults(hangman);
-        } while(playAgain(keyboard));
-        keyboard.close();
+            setGameParameters(hangman, io);
+            playGame(io, hangman);
+            showResults(io, hangman);
+        } while(playAgain(io));
     }
 
 
     /**
      * Check to see if the user wants to play another game.
-     * @param keyboard We assume the Scanner is connected to standard input
+     * @param io the channel connected to the user
      * @return true if the user wants to play another game, false otherwise.
+     * @throws IOException if the user's channel fails or is closed
      */
-    private static boolean playAgain(Scanner keyboard) {
-        System.out.println();
-        System.out.print("Another game? Enter y for another game, "
+    private static boolean playAgain(LineChannel io) throws IOException {
+        io.println();
+        io.print("Another game? Enter y for another game, "
                 + "anything else to quit: ");
-        String answer = keyboard.nextLine();
+        String answer = io.readLine();
         return answer.length() > 0 && answer.toLowerCase().charAt(0) == 'y';
     }
 
@@ -69,65 +127,66 @@ public class HangmanMain  {
     /*
      * Get user choices for the current game of Hangman.
      * pre: hangman != null and initialized with correct dictionary,
-     * keyboard connect to standard input
+     * io connected to the user
      */
     private static void setGameParameters(HangmanManager hangman,
-            Scanner keyboard) {
+            LineChannel io) throws IOException {
         if (hangman == null) {
             throw new IllegalArgumentException("The HangmanManager "
                     + "may not be null.");
         }
         int wordLength = 0;
         do {
-            System.out.print("What length word do you want to use? ");
-            wordLength = Integer.parseInt(keyboard.nextLine());
-        } while (!atLeastOneWord(hangman, wordLength));
+            io.print("What length word do you want to use? ");
+            wordLength = Integer.parseInt(io.readLine());
+        } while (!atLeastOneWord(io, hangman, wordLength));
 
         // determine number of wrong guesses
         int numGuesses = 0;
         do {
-            System.out.print("How many wrong answers allowed? ");
-            numGuesses = Integer.parseInt(keyboard.nextLine());
-        } while (!validChoice(numGuesses, 1, MAX_GUESSES, 
+            io.print("How many wrong answers allowed? ");
+            numGuesses = Integer.parseInt(io.readLine());
+        } while (!validChoice(io, numGuesses, 1, MAX_GUESSES, 
                 "number of wrong guesses"));
 
-        HangmanDifficulty difficulty = getDifficulty(keyboard);
+        HangmanDifficulty difficulty = getDifficulty(io);
         hangman.prepForRound(wordLength, numGuesses, difficulty);
     }
 
     // determine difficulty level from user. They must enter a valid choice.
-    // pre: keyboard != null
-    private static HangmanDifficulty getDifficulty(Scanner keyboard) {
-        if (keyboard== null) {
-            throw new IllegalArgumentException("The Scanner object "
+    // pre: io != null
+    private static HangmanDifficulty getDifficulty(LineChannel io) 
+            throws IOException {
+        if (io == null) {
+            throw new IllegalArgumentException("The LineChannel object "
                     + "may not be null.");
         }
         int diffChoiceAsInt = HangmanDifficulty.EASY.ordinal();
         do {
-            System.out.println("What difficulty level do you want?");
+            io.println("What difficulty level do you want?");
             // we number difficulties 1 to 3 for user
-            System.out.print("Enter a number between " 
+            io.print("Enter a number between " 
                     + (HangmanDifficulty.EASY.ordinal() + 1) 
                     + "(EASIEST) " + "and " 
                     + (HangmanDifficulty.HARD.ordinal() + 1) 
                     + "(HARDEST) : ");
-            diffChoiceAsInt = Integer.parseInt(keyboard.nextLine());
+            diffChoiceAsInt = Integer.parseInt(io.readLine());
             
-        } while (!validChoice(diffChoiceAsInt, HangmanDifficulty.minPossible(), 
+        } while (!validChoice(io, diffChoiceAsInt, HangmanDifficulty.minPossible(), 
                 HangmanDifficulty.maxPossible(), "difficulty"));
         
         return HangmanDifficulty.values()[diffChoiceAsInt - 1];    
     }
 
     // Determine if choice is within the range [min, max]
-    private static boolean validChoice(int choice, int min, int max, 
-    		String explanation) {
+    private static boolean validChoice(LineChannel io, int choice, int min, 
+    		int max, String explanation) {
     		
         boolean valid = (min <= choice) && (choice <= max);
         if (!valid) {
-            System.out.println(choice + " is not a valid number for " 
+            io.println(choice + " is not a valid number for " 
             		+ explanation);
-            System.out.println("Pick a number between " + min + " and " 
+            io.println("Pick a number between " + min + " and " 
             		+ max + ".");
         }
         return valid;
@@ -136,32 +195,40 @@ public class HangmanMain  {
 
     // check to ensure there is at least one word of 
     // the given length in the manager
-    private static boolean atLeastOneWord(HangmanManager hangman, 
+    private static boolean atLeastOneWord(LineChannel io, HangmanManager hangman, 
     		int wordLength) {
     		
         int numWords = hangman.numWords(wordLength);
         if (numWords == 0) {
-            System.out.println();
-            System.out.println("I don't know any words with " 
+            io.println();
+            io.println("I don't know any words with " 
                     + wordLength + " letters. Enter another number.");
         }
         return numWords != 0;
     }
 
 
-    // open the dictionary file. Return a list containing
-    // the words in the dictionary file.
+    // open the dictionary snapshot if it is up to date and intact, otherwise
+    // the dictionary file. Return a dictionary containing the words in it.
     // If the dictionary file is not found the program ends
-    private static Set<String> getDictionary() {
-        Set<String> dictionary = new TreeSet<>();
+    static HangmanDictionary getDictionary() {
+        File text = new File(DICTIONARY_FILE);
+        File snapshot = new File(SNAPSHOT_FILE);
+        if (snapshot.isFile() && snapshot.lastModified() >= text.lastModified()) {
+            try {
+                return HangmanDictionary.open(snapshot);
+            }
+            catch(IOException e) {
+                // a damaged snapshot is no reason to play without words
+                System.out.println("Unable to open " + SNAPSHOT_FILE + ": " + e.getMessage());
+                System.out.println("Reading " + DICTIONARY_FILE + " instead. Run with "
+                        + COMPILE_OPTION + " to rebuild the snapshot.");
+            }
+        }
         try {
-            Scanner input = new Scanner(new File(DICTIONARY_FILE));
-
-            while (input.hasNext())
-                dictionary.add(input.next().toLowerCase());
-            input.close();
+            return new HangmanDictionary(DictionaryReader.read(text));
         }
-        catch(FileNotFoundException e) {
+        catch(IOException e) {
             e.printStackTrace();
             System.out.println("Unable to find this file: " + DICTIONARY_FILE);
             System.out.print("Program running in this directory: ");
@@ -170,74 +237,95 @@ public class HangmanMain  {
                     + "that directory");
             System.out.println("Returning empty set for dictioanary.");
         }
-        return Collections.unmodifiableSet(dictionary);
+        return new HangmanDictionary(Collections.<String>emptySet());
+    }
+
+
+    // read the words in textFile and save them as a snapshot that later runs
+    // can open without parsing
+    private static void compileDictionary(String textFile, String snapshotFile) {
+        try {
+            HangmanDictionary dictionary = 
+                    new HangmanDictionary(DictionaryReader.read(new File(textFile)));
+            dictionary.write(new File(snapshotFile));
+            System.out.println("Compiled " + textFile + " into " + snapshotFile 
+                    + ", longest word has " + dictionary.maxWordLength() 
+                    + " letters.");
+        }
+        catch(IOException e) {
+            e.printStackTrace();
+            System.out.println("Unable to compile " + textFile);
+        }
     }
 
 
     // Plays one game with the user
-    private static void playGame(Scanner keyboard, HangmanManager hangman) {
+    private static void playGame(LineChannel io, HangmanManager hangman) 
+            throws IOException {
         // keep asking for guesses as long as 
         // user has guesses left and puzzle not solved the puzzle
         final String UNKNOWN = "-";
         while (hangman.getGuessesLeft() > 0 
         		&& hangman.getPattern().contains(UNKNOWN)) {
         		
-            System.out.println("guesses left: " + hangman.getGuessesLeft());
+            io.println("guesses left: " + hangman.getGuessesLeft());
 
             // debugging
             if (DEBUG) {
-                System.out.println("DEBUGGING: words left : " 
+                io.println("DEBUGGING: words left : " 
                 		+ hangman.numWordsCurrent());
             }
-            System.out.println("guessed so far : " + hangman.getGuessesMade());
-            System.out.println("current word : " + hangman.getPattern());
-            char guess = getLetter(keyboard, hangman);
+            io.println("guessed so far : " + hangman.getGuessesMade());
+            io.println("current word : " + hangman.getPattern());
+            char guess = getLetter(io, hangman);
             TreeMap<String, Integer> results = hangman.makeGuess(guess);
             if (DEBUG) {
-                showPatterns(results);
+                showPatterns(io, results);
             }
-            showResultOfGuess(hangman, guess);
+            showResultOfGuess(io, hangman, guess);
         }
     }
 
     // shows the result of the user guess
-    private static void showResultOfGuess(HangmanManager hangman, char guess) {
+    private static void showResultOfGuess(LineChannel io, HangmanManager hangman, 
+            char guess) {
         int count = getCount(hangman.getPattern(), guess);
         if (count == 0) {
-            System.out.println("Sorry, there are no " + guess + "'s");
+            io.println("Sorry, there are no " + guess + "'s");
         } else if (count == 1) {
-            System.out.println("Yes, there is one " + guess);
+            io.println("Yes, there is one " + guess);
         } else {
-            System.out.println("Yes, there are " + count + " " + guess + "'s");
+            io.println("Yes, there are " + count + " " + guess + "'s");
         }
-        System.out.println();   
+        io.println();   
     }
 
 
-    // pre, keyboard != null, hangman != null
-    private static char getLetter(Scanner keyboard, HangmanManager manager) {
-        if (keyboard == null || manager == null) {
+    // pre, io != null, hangman != null
+    private static char getLetter(LineChannel io, HangmanManager manager) 
+            throws IOException {
+        if (io == null || manager == null) {
             throw new IllegalArgumentException("Parameters to method may not be null.");
         }
         boolean alreadyGuessed = true;
         char guess = ' ';
         while (alreadyGuessed) {
-            System.out.print("Your guess? ");
-            String result = keyboard.nextLine().toLowerCase();
+            io.print("Your guess? ");
+            String result = io.readLine().toLowerCase();
             while (result == null || result.length() == 0 
                     || !isEnglishLetter(result.charAt(0))) {
                 
-                System.out.println("That is not an English letter.");
-                System.out.print("Your guess? ");
-                result = keyboard.nextLine().toLowerCase();
+                io.println("That is not an English letter.");
+                io.print("Your guess? ");
+                result = io.readLine().toLowerCase();
             }
             guess = result.charAt(0);
             alreadyGuessed = manager.alreadyGuessed(guess);
             if (manager.alreadyGuessed(guess)) {
-                System.out.println("You already guessed that! Pick a new letter please.");
+                io.println("You already guessed that! Pick a new letter please.");
             }
         }
-        System.out.println("the guess: " + guess + ".");
+        io.println("the guess: " + guess + ".");
         assert isEnglishLetter(guess) && !manager.alreadyGuessed(guess) 
             : "something wrong with my logic in getting guess. " + guess;
         return guess;
@@ -251,20 +339,21 @@ public class HangmanMain  {
 
     // debugging method to show current patterns and number of words for each 
     // pre: results != null
-    private static void showPatterns(TreeMap<String, Integer> results) {
+    private static void showPatterns(LineChannel io, 
+            TreeMap<String, Integer> results) {
         if (results == null) {
             throw new IllegalArgumentException("The map may not be null.");
         }
-        System.out.println();
-        System.out.println("DEBUGGING: Based on guess here "
+        io.println();
+        io.println("DEBUGGING: Based on guess here "
                 + "are resulting patterns and number");
-        System.out.println("of words in each pattern: ");
+        io.println("of words in each pattern: ");
         for (String key : results.keySet()) {
-            System.out.println("pattern: " + key 
+            io.println("pattern: " + key 
                     + ", number of words: " + results.get(key));
         }
-        System.out.println("END DEBUGGING");
-        System.out.println();
+        io.println("END DEBUGGING");
+        io.println();
     }
 
 
@@ -286,25 +375,23 @@ public class HangmanMain  {
 
 
     // reports the results of the game, including showing the answer
-    private static void showResults(HangmanManager hangman) {
+    private static void showResults(LineChannel io, HangmanManager hangman) {
         // if the game is over, get the secret word
         String answer = hangman.getSecretWord();
-        System.out.println("answer = " + answer);
+        io.println("answer = " + answer);
         if (hangman.getGuessesLeft() > 0) {
-            System.out.println("You beat me");
+            io.println("You beat me");
         } else {
-            System.out.println("Sorry, you lose");
+            io.println("Sorry, you lose");
         }
     }
 
 
-    // helper method for debugging. Display number of words of length
-    // dictionary.txt has words from length 2 to 25
-    private static void showWordCounts(HangmanManager hangman) {
-        // why 25? Should this vary with the dictionary??
-        final int MAX_LETTERS_PER_WORD = 25;
-        for (int i = 2; i < MAX_LETTERS_PER_WORD; i++) {
-            System.out.println(i + " " + hangman.numWords(i));
+    // helper method for debugging. Display number of words of each length
+    // up to the longest word in the dictionary
+    private static void showWordCounts(LineChannel io, HangmanManager hangman) {
+        for (int i = 1; i <= hangman.maxWordLength(); i++) {
+            io.println(i + " " + hangman.numWords(i));
         }
     }
 }
@@ -1,41 +1,85 @@
 
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Random;
 import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Manages the details of EvilHangman. This class keeps tracks of the possible
  * words from a dictionary during rounds of hangman, based on guesses so far.
+ * <br>
+ * <br>A HangmanManager holds the state of one player's game and is not safe to
+ * use from more than one thread at a time. The words themselves live in a
+ * HangmanDictionary, which is immutable, so to run many games at once build or
+ * open the dictionary once and give each game its own HangmanManager over it.
  *
  */
 public class HangmanManager {
-	private Set<String> words;
-	private Set<String> wordsUpdated;
+	private static final long[] NO_WORDS = new long[0];
+	private final HangmanDictionary dictionary;
+	// the words of this round's length
+	private WordBucket bucket = WordBucket.EMPTY;
+	// the live words are a bitset over the words of bucket, numLive of them,
+	// all in the longs from liveFrom to liveTo - 1. the bitset is reused from
+	// round to round and narrowed in place on every guess
+	private long[] wordsUpdated = NO_WORDS;
+	private int numLive;
+	private int liveFrom;
+	private int liveTo;
+	// true once a GameSnapshot shares wordsUpdated, which must then be copied
+	// before it is changed
+	private boolean wordsShared;
+	// maps the mask of each family to its size, reused by every guess
+	private final LongIntHashMap familySizes = new LongIntHashMap();
+	// true if the last guessFamilies took its families from the dictionary's
+	// cache of openings
+	private boolean openingRemembered;
+	// the families of each letter for tallyLetters, made on its first call
+	private LongIntHashMap[] letterFamilies;
+	// the number of live words without each letter, reused by letterFamilies
+	private final int[] lettersWithout = new int[WordBucket.LETTERS];
+	private SplittableRandom random = new SplittableRandom();
 	private boolean debugOn;
 	private int wordLen;
 	private int numGuesses;
 	private HangmanDifficulty diff;
-	private ArrayList<String> lettersGuessed;
+	// bit i is set once the letter 'a' + i has been guessed this round
+	private int lettersGuessed;
 	private String currentPattern;
-	private final int MOD_EASY = 2;
-	private final int MOD_MED = 4;
-	private final String DASH = "-";
+	// bit i is set while position i of currentPattern is still a dash, kept up
+	// to date guess by guess instead of scanning the pattern
+	private long hidden;
+	private static final int MOD_EASY = 2;
+	private static final int MOD_MED = 4;
+	private static final String DASH = "-";
+	// longest word a round can use, since a family is keyed by a long bitmask
+	private static final int MAX_WORD_LEN = Long.SIZE;
+	// number of live words above which makeGuess splits the work across threads
+	private static final int DEFAULT_PARALLEL_THRESHOLD = 20000;
+	// smallest share of the live words' bitset, in longs, worth handing to 
+	// another thread
+	private static final int MIN_CHUNK = 1024 / Long.SIZE;
+	private static final int CHUNKS_PER_THREAD = 4;
+	private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+	// NONE unless setMetrics was called, then each call is timed and reported
+	private HangmanMetrics metrics = HangmanMetrics.NONE;
 
 	/**
 	 * Create a new HangmanManager from the provided set of words and phrases. pre:
-	 * words != null, words.size() > 0
+	 * words != null, words.size() > 0. This builds a dictionary just for this
+	 * manager, use the HangmanDictionary constructor to share one between games.
 	 * 
 	 * @param words   A set with the words for this instance of Hangman.
 	 * @param debugOn true if we should print out debugging to System.out.
 	 */
 	public HangmanManager(Set<String> words, boolean debugOn) {
-		this.words = words;
-		this.debugOn = debugOn;
+		this(new HangmanDictionary(words), debugOn);
 	}
 
 	/**
@@ -45,8 +89,58 @@ public class HangmanManager {
 	 * @param words A set with the words for this instance of Hangman.
 	 */
 	public HangmanManager(Set<String> words) {
-		this.words = words;
-		this.debugOn = false;
+		this(words, false);
+	}
+
+	/**
+	 * Create a new HangmanManager that plays with the words in a dictionary that
+	 * has already been built or opened. The dictionary may be shared with other
+	 * managers, including ones used by other threads. pre: dictionary != null
+	 * 
+	 * @param dictionary The dictionary for this instance of Hangman.
+	 * @param debugOn    true if we should print out debugging to System.out.
+	 */
+	public HangmanManager(HangmanDictionary dictionary, boolean debugOn) {
+		if (dictionary == null) {
+			throw new IllegalArgumentException("The dictionary may not be null.");
+		}
+		this.dictionary = dictionary;
+		this.debugOn = debugOn;
+	}
+
+	/**
+	 * Set how many live words there must be before makeGuess sorts them into
+	 * families on several threads of the common ForkJoinPool. With fewer live
+	 * words the work stays on the calling thread, where it is cheaper than
+	 * splitting it up. Either way makeGuess gives the same result. The default is
+	 * 20000. pre: threshold >= 0
+	 * 
+	 * @param threshold the number of live words above which makeGuess works in
+	 *                  parallel, Integer.MAX_VALUE to never work in parallel
+	 */
+	public void setParallelThreshold(int threshold) {
+		if (threshold < 0) {
+			throw new IllegalArgumentException("The threshold may not be negative.");
+		}
+		this.parallelThreshold = threshold;
+	}
+
+	/**
+	 * Set where this manager reports what its calls cost. prepForRound,
+	 * makeGuess and getSecretWord each time themselves and hand the time to
+	 * metrics, and makeGuess also reports the families it made and the bytes it
+	 * allocated, or -1 bytes if the JVM's per thread allocation counting is off.
+	 * With HangmanMetrics.NONE, the default, nothing is measured.
+	 * pre: metrics != null
+	 * 
+	 * @param metrics where to report measurements, possibly shared with other
+	 *                managers
+	 */
+	public void setMetrics(HangmanMetrics metrics) {
+		if (metrics == null) {
+			throw new IllegalArgumentException("The metrics may not be null.");
+		}
+		this.metrics = metrics;
 	}
 
 	/**
@@ -56,14 +150,17 @@ public class HangmanManager {
 	 * @return the number of words in the original Dictionary with the given length
 	 */
 	public int numWords(int length) {
-		int count = 0;
-		Iterator<String> it = words.iterator();
-		while (it.hasNext()) {
-			if (it.next().length() == length) {
-				count++;
-			}
-		}
-		return count;
+		return dictionary.numWords(length);
+	}
+
+	/**
+	 * Get the length of the longest word in this HangmanManager. pre: none
+	 * 
+	 * @return the length of the longest word in the original Dictionary, 0 if the
+	 *         Dictionary is empty
+	 */
+	public int maxWordLength() {
+		return dictionary.maxWordLength();
 	}
 
 	/**
@@ -71,31 +168,47 @@ public class HangmanManager {
 	 * Hangman.
 	 * 
 	 * @param wordLen    the length of the word to pick this time. numWords(wordLen)
-	 *                   > 0
+	 *                   > 0, wordLen <= 64
 	 * @param numGuesses the number of wrong guesses before the player loses the
 	 *                   round. numGuesses >= 1
 	 * @param diff       The difficulty for this round.
 	 */
 	public void prepForRound(int wordLen, int numGuesses, HangmanDifficulty diff) {
+		if (wordLen > MAX_WORD_LEN) {
+			throw new IllegalArgumentException("Words may be at most " + MAX_WORD_LEN
+					+ " letters long.");
+		}
+		long start = metrics == HangmanMetrics.NONE ? 0 : System.nanoTime();
 		this.wordLen = wordLen;
 		this.numGuesses = numGuesses;
 		this.diff = diff;	
 		String pattern = "";
-		wordsUpdated = new HashSet<>();
-
-		//adds strings from words to wordsUpdated that are the proper length
-		for (String i : words) {
-			if (i.length() == this.wordLen) {
-				wordsUpdated.add(i);
-			}
+		//the live words start out as the whole length bucket, a long of the 
+		//bitset per 64 words
+		bucket = dictionary.bucket(wordLen);
+		numLive = bucket.size();
+		liveFrom = 0;
+		liveTo = bucket.blocks();
+		if (wordsUpdated.length < liveTo || wordsShared) {
+			wordsUpdated = new long[Math.max(liveTo, wordsUpdated.length)];
+			wordsShared = false;
+		}
+		Arrays.fill(wordsUpdated, 0, liveTo, -1L);
+		if (numLive % Long.SIZE != 0) {
+			wordsUpdated[liveTo - 1] = -1L >>> -numLive;
 		}
 		
 		//creates initial pattern string
+		hidden = 0;
 		for (int i = 0; i < this.wordLen; i++) {
 			pattern += DASH;
+			hidden |= 1L << i;
 		}
 		this.currentPattern = pattern;
-		this.lettersGuessed = new ArrayList<String>();
+		this.lettersGuessed = 0;
+		if (metrics != HangmanMetrics.NONE) {
+			metrics.roundPrepared(System.nanoTime() - start, numLive);
+		}
 	}
 
 	/**
@@ -106,7 +219,7 @@ public class HangmanManager {
 	 *         original dictionary and the guesses so far.
 	 */
 	public int numWordsCurrent() {
-		return wordsUpdated.size();
+		return numLive;
 	}
 
 	/**
@@ -120,6 +233,111 @@ public class HangmanManager {
 		return numGuesses;
 	}
 
+	/**
+	 * Count, for every letter, how many live words have it, how large the
+	 * largest family would be if it were guessed and how much the guess would
+	 * tell, in one pass over the live words. Nothing about the round changes.
+	 * pre: tally != null
+	 * 
+	 * @param tally the tally to fill, which can be reused from call to call
+	 */
+	public void tallyLetters(LetterTally tally) {
+		if (tally == null) {
+			throw new IllegalArgumentException("The tally may not be null.");
+		}
+		if (letterFamilies == null) {
+			letterFamilies = new LongIntHashMap[WordBucket.LETTERS];
+			for (int i = 0; i < letterFamilies.length; i++) {
+				letterFamilies[i] = new LongIntHashMap();
+			}
+		}
+		letterFamilies(letterFamilies);
+		tally.setLiveWords(numLive);
+		for (int letter = 0; letter < WordBucket.LETTERS; letter++) {
+			LongIntHashMap families = letterFamilies[letter];
+			if ((lettersGuessed & 1 << letter) != 0) {
+				//every live word has a guessed letter where the pattern shows it
+				//and nowhere else
+				boolean in = currentPattern.indexOf('a' + letter) >= 0;
+				tally.set(letter, in ? numLive : 0, numLive, 0);
+				continue;
+			}
+			//sum of size * log(size) over the families, and the largest one
+			double weighted = 0;
+			int without = 0;
+			int largest = 0;
+			for (int i = 0; i < families.size(); i++) {
+				int size = families.valueAt(i);
+				weighted += size * Math.log(size);
+				largest = Math.max(largest, size);
+				if (families.keyAt(i) == 0) {
+					without = size;
+				}
+			}
+			double information = numLive == 0 ? 0 : Math.log(numLive) - weighted / numLive;
+			tally.set(letter, numLive - without, largest, information);
+		}
+	}
+
+	/**
+	 * Work out what makeGuess would do with a letter without making the guess.
+	 * Nothing about the round changes, and the result is what makeGuess would
+	 * return and the pattern it would pick. pre: 'a' <= guess <= 'z',
+	 * guess has not been guessed yet this round
+	 * 
+	 * @param guess the letter to preview
+	 * @return the families, pattern and wrong guesses the guess would give
+	 */
+	public GuessPreview previewGuess(char guess) {
+		return preview(bucket, wordsUpdated, liveFrom, liveTo, currentPattern, lettersGuessed,
+				diff, numGuesses, guess);
+	}
+
+	/**
+	 * Take a snapshot of the round as it is now, which other threads can use
+	 * while this manager goes on with the game. The snapshot shares the live
+	 * words with the manager rather than copying them. The manager copies them
+	 * for itself the next time it changes them, so a snapshot costs nothing
+	 * unless the game moves on, and then one copy however many snapshots were
+	 * taken. pre: none
+	 * 
+	 * @return an unchanging snapshot of the current round
+	 */
+	public GameSnapshot snapshot() {
+		wordsShared = true;
+		return new GameSnapshot(bucket, wordsUpdated, liveFrom, liveTo, numLive, currentPattern,
+				lettersGuessed, diff, numGuesses);
+	}
+
+	// works out what makeGuess would do with guess in a round with the given
+	// state, reading words but never changing it, so any number of threads
+	// can preview against the same state at once
+	static GuessPreview preview(WordBucket bucket, long[] words, int from, int to,
+			String pattern, int guessed, HangmanDifficulty diff, int guessesLeft, char guess) {
+		if (!isLetter(guess)) {
+			throw new IllegalArgumentException("The guess must be a lowercase letter.");
+		}
+		if ((guessed & letterBit(guess)) != 0) {
+			throw new IllegalArgumentException("This letter has already been guessed.");
+		}
+		if (pattern == null) {
+			throw new IllegalArgumentException("There is no round to preview.");
+		}
+		LongIntHashMap familySizes = new LongIntHashMap();
+		patternCreator(bucket, words, from, to, guess - 'a', familySizes);
+		TreeMap<String, Integer> familyCount = new TreeMap<String, Integer>();
+		familyPatterns(pattern, familySizes, guess, familyCount);
+		String chosen = mapConverter(familyCount, diff, guessed | letterBit(guess), false);
+		return new GuessPreview(familyCount, chosen, 
+				chosen.indexOf(guess) < 0 ? guessesLeft - 1 : guessesLeft);
+	}
+
+	// returns the letters guessed so far this round, bit i for 'a' + i. unlike
+	// alreadyGuessed this never prints, so strategies can ask it every guess
+	int guessedLetters() {
+		return lettersGuessed;
+	}
+
 	/**
 	 * Return a String that contains the letters the user has guessed so far during
 	 * this round. The characters in the String are in alphabetical order. The
@@ -130,16 +348,14 @@ public class HangmanManager {
 	 *         this round.
 	 */
 	public String getGuessesMade() {
-		Collections.sort(lettersGuessed);
 		StringBuilder sb = new StringBuilder();
 		String comma = ", ";
 		sb.append("[");
-		for (int i = 0; i < lettersGuessed.size(); i++) {
-			if (i == 0) {
-				sb.append(lettersGuessed.get(i));
-			} else {
-				sb.append(comma + lettersGuessed.get(i));
+		for (int bits = lettersGuessed; bits != 0; bits &= bits - 1) {
+			if (sb.length() > 1) {
+				sb.append(comma);
 			}
+			sb.append((char) ('a' + Integer.numberOfTrailingZeros(bits)));
 		}
 		sb.append("]");
 		return sb.toString();
@@ -153,14 +369,23 @@ public class HangmanManager {
 	 *         otherwise.
 	 */
 	public boolean alreadyGuessed(char guess) {
-		String guessString = "" + guess;
-		if (lettersGuessed.contains(guessString)) {
-			System.out.println(lettersGuessed);
+		if (isLetter(guess) && (lettersGuessed & letterBit(guess)) != 0) {
+			System.out.println(getGuessesMade());
 			return true;
 		}
 		return false;
 	}
 
+	// returns true if ch is one of the lowercase letters 'a' through 'z'
+	private static boolean isLetter(char ch) {
+		return 'a' <= ch && ch <= 'z';
+	}
+
+	// returns the bit that stands for the lowercase letter ch in lettersGuessed
+	private static int letterBit(char ch) {
+		return 1 << (ch - 'a');
+	}
+
 	/**
 	 * Get the current pattern. The pattern contains '-''s for unrevealed (or
 	 * guessed) characters and the actual character for "correctly guessed"
@@ -176,66 +401,254 @@ public class HangmanManager {
 	 * Update the game status (pattern, wrong guesses, word list), based on the give
 	 * guess.
 	 * 
-	 * @param guess pre: !alreadyGuessed(ch), the current guessed character
+	 * @param guess pre: !alreadyGuessed(ch), 'a' <= guess <= 'z', the current
+	 *              guessed character
 	 * @return return a tree map with the resulting patterns and the number of words
 	 *         in each of the new patterns. The return value is for testing and
 	 *         debugging purposes.
 	 */
 	public TreeMap<String, Integer> makeGuess(char guess) {
+		if (!isLetter(guess)) {
+			throw new IllegalArgumentException("The guess must be a lowercase letter.");
+		}
 		if (alreadyGuessed(guess)) {
 			throw new IllegalArgumentException("This letter has already been guessed."); 
 		}
 		
-		lettersGuessed.add(guess + "");
-		TreeMap<String, ArrayList<String>> familyMap = 
-				new TreeMap<String, ArrayList<String>>();
-		TreeMap<String, Integer> familyCount = new TreeMap<String, Integer>();
-		String stringGuess = "" + guess;
+		boolean metered = metrics != HangmanMetrics.NONE;
+		long bytes = metered ? allocatedBytes() : 0;
+		long start = metered ? System.nanoTime() : 0;
+		
+		//a later guess may have been made before from the same pattern and 
+		//letters, by this game or another one using the dictionary. debugging 
+		//always works it out again so every step is shown
+		int letter = guess - 'a';
+		boolean remember = lettersGuessed != 0 && !debugOn && dictionary.transitions().enabled();
+		TransitionCache.Outcome known = null;
+		if (remember) {
+			known = dictionary.transitions().get(diff, lettersGuessed, currentPattern, letter);
+		}
+		String before = currentPattern;
+		int guessedBefore = lettersGuessed;
+		lettersGuessed |= letterBit(guess);
+		TreeMap<String, Integer> familyCount;
+		long chosen;
+		ownWords();
+		if (known != null) {
+			familyCount = known.families();
+			currentPattern = known.pattern();
+			chosen = positionMask(currentPattern, guess);
+			keepFamily(chosen, letter, known.familySize());
+		} else {
+			familyCount = new TreeMap<String, Integer>();
+			chosen = guessFamilies(guess, letter, familyCount);
+			if (remember) {
+				dictionary.transitions().put(diff, guessedBefore, before, letter, 
+						new TransitionCache.Outcome(familyCount, currentPattern));
+			}
+		}
+		hidden &= ~chosen;
 		
-		//updates maps with new patterns and chooses the current pattern based
-		//on difficulty and round number
-		patternCreator(stringGuess, familyMap, familyCount);
-		currentPattern = mapConverter(familyCount);
+		if (chosen == 0) {
+			numGuesses--;
+		}
+		if (metered) {
+			long nanos = System.nanoTime() - start;
+			long after = bytes < 0 ? -1 : allocatedBytes();
+			metrics.guessMade(nanos, familyCount.size(), numLive, 
+					known != null || openingRemembered, after < 0 ? -1 : after - bytes);
+		}
+		return familyCount;
+	}
+
+	// splits the live words into families by where guess appears, filling 
+	// familyCount with each family's pattern and size, then keeps the family 
+	// chosen for the difficulty and round. returns where the guess is in the 
+	// new pattern. sets openingRemembered if the families came from the 
+	// dictionary's cache of openings
+	private long guessFamilies(char guess, int letter, TreeMap<String, Integer> familyCount) {
+		//the first guess of a round may have been made before at this length
+		boolean opening = lettersGuessed == letterBit(guess);
+		OpeningMove cached = opening ? dictionary.opening(wordLen, letter) : null;
+		openingRemembered = cached != null;
+		
+		//counts the words in each family, keyed by where the guess appears, 
+		//then chooses the current pattern based on difficulty and round number
+		familySizes.clear();
+		if (cached != null) {
+			cached.families(familySizes);
+		} else if (numLive > parallelThreshold) {
+			ForkJoinPool pool = ForkJoinPool.commonPool();
+			int chunkSize = Math.max(MIN_CHUNK, 
+					(liveTo - liveFrom) / (CHUNKS_PER_THREAD * pool.getParallelism()));
+			familySizes.addAll(pool.invoke(new FamilyTask(bucket, wordsUpdated, liveFrom, 
+					liveTo, letter, chunkSize)));
+		} else {
+			patternCreator(bucket, wordsUpdated, liveFrom, liveTo, letter, familySizes);
+		}
+		familyPatterns(currentPattern, familySizes, guess, familyCount);
+		currentPattern = mapConverter(familyCount, diff, lettersGuessed, debugOn);
 		
 		if (debugOn) {
 			System.out.println("DEBUGGING: New pattern is: " + currentPattern
 					+ ". New family has " + familyCount.get(currentPattern) + " words.\n");
 		}
-		wordsUpdated = new HashSet<>(familyMap.get(currentPattern));
-		
-		if (!currentPattern.contains(stringGuess)) {
-			numGuesses--;
+		long chosen = positionMask(currentPattern, guess);
+		if (cached != null && cached.chosen() == chosen) {
+			cached.family(wordsUpdated);
+			liveFrom = cached.from();
+			liveTo = cached.to();
+			numLive = familyCount.get(currentPattern);
+		} else {
+			keepFamily(chosen, letter, familyCount.get(currentPattern));
+			if (opening && cached == null) {
+				dictionary.rememberOpening(wordLen, letter, new OpeningMove(familySizes, chosen,
+						wordsUpdated, liveFrom, liveTo));
+			}
 		}
-		return familyCount;
+		return chosen;
 	}
 
-	// creates a pattern string for each word in wordsUpdated based on the 
-	// player's guess and adds it to the pattern TreeMap
-	private void patternCreator(String stringGuess, TreeMap<String, 
-			ArrayList<String>> familyMap, TreeMap<String, Integer> familyCount) {
-		Iterator<String> it = wordsUpdated.iterator();
-
-		while (it.hasNext()) {
-			String updated = "";
-			String current = it.next();
-			
-			for (int i = 0; i < current.length(); i++) {
-				String letter = "" + current.charAt(i);
-				
-				if (lettersGuessed.contains(letter)) {
-					updated += current.charAt(i);
-				} else if (lettersGuessed.contains(current.charAt(i))) {
-					updated += current.charAt(i);
-				} else {
-					updated += DASH;
+	// counts how every letter not guessed yet this round would split the live
+	// words, in one pass over them: families[i] gets the size of each family
+	// of 'a' + i keyed by the positions of the letter, with the words that do
+	// not have it under 0. the maps of guessed letters are left empty.
+	// pre: families.length == 26
+	private void letterFamilies(LongIntHashMap[] families) {
+		int unguessed = ~lettersGuessed & (1 << WordBucket.LETTERS) - 1;
+		int[] without = lettersWithout;
+		Arrays.fill(without, 0);
+		for (LongIntHashMap family : families) {
+			family.clear();
+		}
+		for (int block = liveFrom; block < liveTo; block++) {
+			long live = wordsUpdated[block];
+			if (live == 0) {
+				continue;
+			}
+			int liveCount = Long.bitCount(live);
+			for (int letters = unguessed; letters != 0; letters &= letters - 1) {
+				int letter = Integer.numberOfTrailingZeros(letters);
+				long with = live & bucket.bits(bucket.wordsWith(letter), block);
+				without[letter] += liveCount - Long.bitCount(with);
+				for (long bits = with; bits != 0; bits &= bits - 1) {
+					int word = block * Long.SIZE + Long.numberOfTrailingZeros(bits);
+					families[letter].addTo(bucket.positionMask(word, letter), 1);
 				}
 			}
-			mapAdder(familyMap, familyCount, updated, current);
+		}
+		for (int letters = unguessed; letters != 0; letters &= letters - 1) {
+			int letter = Integer.numberOfTrailingZeros(letters);
+			if (without[letter] > 0) {
+				families[letter].addTo(0, without[letter]);
+			}
+		}
+	}
+
+	// counts the words in longs from to to - 1 of the bitset words in each 
+	// family into familySizes. Only the new guess can change a word's pattern,
+	// so the mask of where the guessed letter is tells the families apart. The
+	// words without the letter all share the empty mask and are counted a long
+	// at a time, the others get their mask from the bucket's table
+	private static void patternCreator(WordBucket bucket, long[] words, int from, int to, 
+			int letter, LongIntHashMap familySizes) {
+		int withLetter = bucket.wordsWith(letter);
+		int without = 0;
+		for (int block = from; block < to; block++) {
+			long with = bucket.bits(withLetter, block);
+			without += Long.bitCount(words[block] & ~with);
+			for (long bits = words[block] & with; bits != 0; bits &= bits - 1) {
+				int word = block * Long.SIZE + Long.numberOfTrailingZeros(bits);
+				familySizes.addTo(bucket.positionMask(word, letter), 1);
+			}
+		}
+		if (without > 0) {
+			familySizes.addTo(0, without);
+		}
+	}
+
+	// makes wordsUpdated this manager's own again if a snapshot shares it, by
+	// copying the longs that hold live words
+	private void ownWords() {
+		if (wordsShared) {
+			long[] copy = new long[wordsUpdated.length];
+			System.arraycopy(wordsUpdated, liveFrom, copy, liveFrom, liveTo - liveFrom);
+			wordsUpdated = copy;
+			wordsShared = false;
+		}
+	}
+
+	// narrows the live words to the chosen family with one bitwise pass per
+	// position that was still hidden before this guess: the family has the
+	// letter at the chosen positions and not at the others. when the letter is
+	// not in the family one pass over the words without it does
+	private void keepFamily(long chosen, int letter, int familySize) {
+		long passes = hidden;
+		if (chosen == 0) {
+			bucket.andNot(wordsUpdated, bucket.wordsWith(letter), liveFrom, liveTo);
+			passes = 0;
+		}
+		for (long bits = passes; bits != 0; bits &= bits - 1) {
+			int position = Long.numberOfTrailingZeros(bits);
+			if ((chosen & 1L << position) != 0) {
+				bucket.and(wordsUpdated, bucket.wordsWith(position, letter), liveFrom, liveTo);
+			} else {
+				bucket.andNot(wordsUpdated, bucket.wordsWith(position, letter), liveFrom, liveTo);
+			}
+		}
+		while (liveFrom < liveTo && wordsUpdated[liveFrom] == 0) {
+			liveFrom++;
+		}
+		while (liveTo > liveFrom && wordsUpdated[liveTo - 1] == 0) {
+			liveTo--;
+		}
+		numLive = familySize;
+	}
+
+	// returns a bitmask with bit i set when the character at index i is guess
+	private static long positionMask(String word, char guess) {
+		long mask = 0;
+		for (int i = 0; i < word.length(); i++) {
+			if (word.charAt(i) == guess) {
+				mask |= 1L << i;
+			}
+		}
+		return mask;
+	}
+
+	// puts the pattern of each family in familySizes, current with the guess
+	// revealed where the family has it, and its size into familyCount
+	private static void familyPatterns(String current, LongIntHashMap familySizes, char guess,
+			TreeMap<String, Integer> familyCount) {
+		for (int i = 0; i < familySizes.size(); i++) {
+			familyCount.put(patternFor(current, familySizes.keyAt(i), guess), 
+					familySizes.valueAt(i));
 		}
 	}
 
-	//returns the current pattern based on the difficulty
-	private String mapConverter(TreeMap<String, Integer> familyCount) {
+	// returns current with the guess revealed at the masked positions
+	private static String patternFor(String current, long mask, char guess) {
+		char[] pattern = current.toCharArray();
+		for (long bits = mask; bits != 0; bits &= bits - 1) {
+			pattern[Long.numberOfTrailingZeros(bits)] = guess;
+		}
+		return new String(pattern);
+	}
+
+	//returns the current pattern based on the difficulty, once the letters in
+	//lettersGuessed have been guessed. previews share it with makeGuess so
+	//both always pick the same family
+	private static String mapConverter(TreeMap<String, Integer> familyCount, 
+			HangmanDifficulty diff, int lettersGuessed, boolean debugOn) {
+		ArrayList<WordFam> wf = sortedFamilies(familyCount);
+		//find the index of the pattern we want to use based on difficulty
+		int difficulty = difficultyFinder(wf, diff, lettersGuessed, debugOn);
+		WordFam o = wf.get(difficulty);
+		return o.pattern;
+	}
+
+	//returns the families from hardest to easiest
+	private static ArrayList<WordFam> sortedFamilies(TreeMap<String, Integer> familyCount) {
 		Set<String> keyList = familyCount.keySet(); 
 		ArrayList<WordFam> wf = new ArrayList<WordFam>();
 		
@@ -243,33 +656,30 @@ public class HangmanManager {
 			wf.add(new WordFam(i, familyCount.get(i)));
 		}
 		Collections.sort(wf);
-		//find the index of the pattern we want to use based on difficulty
-		int difficulty = difficultyFinder(wf);
-		WordFam o = wf.get(difficulty);
-		return o.pattern;
+		return wf;
+	}
+
+	//returns true if the round should pick the second hardest family once
+	//the letters in lettersGuessed have been guessed
+	private static boolean picksSecond(HangmanDifficulty diff, int lettersGuessed) {
+		int guessed = Integer.bitCount(lettersGuessed);
+		return diff == HangmanDifficulty.EASY && guessed % MOD_EASY == 0
+				|| diff == HangmanDifficulty.MEDIUM && guessed % MOD_MED == 0;
 	}
 
 	// decides the current pattern based on the difficulty and round number 
-	// (which is calculated by the length of lettersGuessed)
-	private int difficultyFinder(ArrayList<WordFam> wf) {
+	// (which is calculated by the number of letters guessed)
+	private static int difficultyFinder(ArrayList<WordFam> wf, HangmanDifficulty diff, 
+			int lettersGuessed, boolean debugOn) {
 		int index = 0;
 		String easy = "easiest";
 		String med = "medium-difficulty";
 		String current = "hardest";
 		
-		if (diff == HangmanDifficulty.EASY) {
-			if (lettersGuessed.size() % MOD_EASY == 0) {
-				current = easy;
-				if (wf.size() > 1) { //ensures no out of bounds errors
-					index = 1;
-				}
-			}
-		} else if (diff == HangmanDifficulty.MEDIUM) {
-			if (lettersGuessed.size() % MOD_MED == 0) {
-				current = med;
-				if (wf.size() > 1) {
-					index = 1;
-				}
+		if (picksSecond(diff, lettersGuessed)) {
+			current = diff == HangmanDifficulty.EASY ? easy : med;
+			if (wf.size() > 1) { //ensures no out of bounds errors
+				index = 1;
 			}
 		}
 
@@ -284,27 +694,6 @@ public class HangmanManager {
 		return index;
 	}
 
-	// checks if pattern already exists in map and if it doesn't then it adds the
-	// pattern to the map and updates the keys and values accordingly
-	private void mapAdder(TreeMap<String, ArrayList<String>> familyMap,
-			TreeMap<String, Integer> familyCount, String updated, String current) {
-
-		ArrayList<String> familyArray = new ArrayList<String>();
-		
-		if (familyMap.containsKey(updated)) {
-			familyArray = familyMap.get(updated);
-			familyArray.add(current);
-			familyMap.put(updated, familyArray);
-			int count = familyCount.get(updated);
-			count++;
-			familyCount.put(updated, count);
-		} else {
-			familyArray.add(current);
-			familyMap.put(updated, familyArray);
-			familyCount.put(updated, 1);
-		}
-	}
-
 	/**
 	 * Return the secret word this HangmanManager finally ended up picking for this
 	 * round. If there are multiple possible words left one is selected at random.
@@ -318,15 +707,101 @@ public class HangmanManager {
 			throw new IllegalArgumentException("The list of active words is size 0."); 
 		}
 		
-		Random r = new Random();
-		int word = r.nextInt(wordsUpdated.size());
-		Iterator<String> it = wordsUpdated.iterator();
-		String secretWord = it.next();
-		
-		for (int i = 0; i < word; i++) {
-			secretWord = it.next();
+		long start = metrics == HangmanMetrics.NONE ? 0 : System.nanoTime();
+		//finds the live word with the chosen rank by counting bits a long at a time
+		int rank = random.nextInt(numLive);
+		int block = liveFrom;
+		while (rank >= Long.bitCount(wordsUpdated[block])) {
+			rank -= Long.bitCount(wordsUpdated[block]);
+			block++;
+		}
+		long bits = wordsUpdated[block];
+		for (int i = 0; i < rank; i++) {
+			bits &= bits - 1;
+		}
+		String word = bucket.word(block * Long.SIZE + Long.numberOfTrailingZeros(bits));
+		if (metrics != HangmanMetrics.NONE) {
+			metrics.secretWordPicked(System.nanoTime() - start);
+		}
+		return word;
+	}
+
+	// returns how many bytes the current thread has allocated so far, or -1 if
+	// the JVM does not count them or counting is turned off
+	private static long allocatedBytes() {
+		com.sun.management.ThreadMXBean counter = Allocations.COUNTER;
+		return counter == null ? -1
+				: counter.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	// returns the JVM's counter of bytes allocated per thread, or null if it
+	// does not have one. counting is left on or off as it was, since it is a
+	// setting of the whole JVM
+	private static com.sun.management.ThreadMXBean allocationCounter() {
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+			return null;
+		}
+		com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+		return counter.isThreadAllocatedMemorySupported() ? counter : null;
+	}
+
+	// holds the counter of bytes allocated per thread, so it is only looked up
+	// once metrics are first taken. null if the JVM can not count them
+	private static class Allocations {
+		private static final com.sun.management.ThreadMXBean COUNTER = allocationCounter();
+	}
+
+	/**
+	 * Seed the random choice of secret word, so a game replayed with the same
+	 * dictionary, seed and guesses ends with the same secret word. pre: none
+	 * 
+	 * @param seed the seed for this manager's random numbers
+	 */
+	public void setSeed(long seed) {
+		random = new SplittableRandom(seed);
+	}
+
+	// counts the family sizes for a range of the live words on a fork join
+	// pool. While the range is bigger than chunkSize half of it is split off 
+	// for another thread, and the partial family sizes are summed as the 
+	// halves finish
+	private static class FamilyTask extends RecursiveTask<LongIntHashMap> {
+		private static final long serialVersionUID = 1L;
+		private final WordBucket bucket;
+		private final long[] words;
+		private final int from;
+		private final int to;
+		private final int letter;
+		private final int chunkSize;
+
+		// construct a task for the words in longs from to to - 1 of the bitset
+		// words
+		private FamilyTask(WordBucket bucket, long[] words, int from, int to, int letter, 
+				int chunkSize) {
+			this.bucket = bucket;
+			this.words = words;
+			this.from = from;
+			this.to = to;
+			this.letter = letter;
+			this.chunkSize = chunkSize;
+		}
+
+		// returns the family sizes of this task's range of the words
+		protected LongIntHashMap compute() {
+			if (to - from <= chunkSize) {
+				LongIntHashMap familySizes = new LongIntHashMap();
+				patternCreator(bucket, words, from, to, letter, familySizes);
+				return familySizes;
+			}
+			int middle = (from + to) >>> 1;
+			FamilyTask other = new FamilyTask(bucket, words, middle, to, letter, chunkSize);
+			other.fork();
+			LongIntHashMap familySizes = new FamilyTask(bucket, words, from, middle, letter, 
+					chunkSize).compute();
+			familySizes.addAll(other.join());
+			return familySizes;
 		}
-		return secretWord;
 	}
 
 	//a private class that makes comparisons between WordFam objects
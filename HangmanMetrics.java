@@ -0,0 +1,54 @@
+/**
+ * Receives measurements of the work a HangmanManager does. A manager starts out
+ * with NONE, which ignores them, and then does not take any measurements at
+ * all. Give it a RecordingMetrics with setMetrics to see what each call costs.
+ * One HangmanMetrics may be shared by the managers of many threads, so
+ * implementations must be safe to call from more than one thread at once.
+ *
+ */
+public interface HangmanMetrics {
+
+	/**
+	 * Metrics that ignore every measurement. A manager using these does not
+	 * take any.
+	 */
+	HangmanMetrics NONE = new HangmanMetrics() {
+		public void roundPrepared(long nanos, int words) {
+		}
+
+		public void guessMade(long nanos, int families, int familySize, boolean remembered,
+				long bytes) {
+		}
+
+		public void secretWordPicked(long nanos) {
+		}
+	};
+
+	/**
+	 * Called when prepForRound has finished.
+	 *
+	 * @param nanos how long prepForRound took, in nanoseconds
+	 * @param words how many words the round starts with
+	 */
+	void roundPrepared(long nanos, int words);
+
+	/**
+	 * Called when makeGuess has finished.
+	 *
+	 * @param nanos      how long makeGuess took, in nanoseconds
+	 * @param families   how many patterns the guess split the words into
+	 * @param familySize how many words are in the family that was kept
+	 * @param remembered true if the families came from the dictionary's cache
+	 *                   rather than the words
+	 * @param bytes      how many bytes of heap the calling thread allocated
+	 *                   during makeGuess, or -1 if the JVM does not say
+	 */
+	void guessMade(long nanos, int families, int familySize, boolean remembered, long bytes);
+
+	/**
+	 * Called when getSecretWord has finished.
+	 *
+	 * @param nanos how long getSecretWord took, in nanoseconds
+	 */
+	void secretWordPicked(long nanos);
+}
@@ -0,0 +1,375 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays games of Hangman with no one at the keyboard, to measure how hard each
+ * difficulty is against a guessing strategy. The games cycle through every
+ * word length in a range and every difficulty, and run on as many threads as
+ * asked, each with its own HangmanManager over one shared dictionary. Game i
+ * always gets the same random numbers, so a simulation gives the same results
+ * on any number of threads.
+ * <br>
+ * <br>Usage: java HangmanSimulator [games] [strategy] [wrong guesses] [threads]
+ * [seed], where strategy is frequency, random, entropy or minimax.
+ *
+ */
+public class HangmanSimulator {
+	private static final long DEFAULT_GAMES = 100000;
+	private static final int DEFAULT_WRONG_GUESSES = 10;
+	private static final int MIN_LENGTH = 4;
+	private static final int MAX_LENGTH = 12;
+	private static final String DEFAULT_STRATEGY = "frequency";
+	private static final double NANOS_PER_SECOND = 1e9;
+	private static final double PERCENT = 100;
+	// a round can not take more guesses than there are letters
+	private static final int MAX_GUESSES = WordBucket.LETTERS;
+
+	private final HangmanDictionary dictionary;
+	private final GuessStrategy strategy;
+	private final int wrongGuesses;
+	private final int[] lengths;
+
+	/**
+	 * Create a simulator that plays with the words of a dictionary, guessing
+	 * with strategy, at every length from minLength to maxLength that has
+	 * words. pre: dictionary != null, strategy != null, wrongGuesses >= 1,
+	 * dictionary has words of some length from minLength to maxLength
+	 *
+	 * @param dictionary   the dictionary every game shares
+	 * @param strategy     picks the letters of every game
+	 * @param wrongGuesses the number of wrong guesses before a game is lost
+	 * @param minLength    the shortest word length to play
+	 * @param maxLength    the longest word length to play
+	 */
+	public HangmanSimulator(HangmanDictionary dictionary, GuessStrategy strategy,
+			int wrongGuesses, int minLength, int maxLength) {
+		if (dictionary == null || strategy == null) {
+			throw new IllegalArgumentException("Parameters to method may not be null.");
+		}
+		if (wrongGuesses < 1) {
+			throw new IllegalArgumentException("There must be at least one wrong guess.");
+		}
+		List<Integer> playable = new ArrayList<Integer>();
+		for (int length = Math.max(1, minLength); length <= maxLength; length++) {
+			if (dictionary.numWords(length) > 0) {
+				playable.add(length);
+			}
+		}
+		if (playable.isEmpty()) {
+			throw new IllegalArgumentException("The dictionary has no words of " + minLength
+					+ " to " + maxLength + " letters.");
+		}
+		this.dictionary = dictionary;
+		this.strategy = strategy;
+		this.wrongGuesses = wrongGuesses;
+		this.lengths = new int[playable.size()];
+		for (int i = 0; i < lengths.length; i++) {
+			lengths[i] = playable.get(i);
+		}
+	}
+
+	// Run a simulation and print its report.
+	public static void main(String[] args) throws Exception {
+		long games = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_GAMES;
+		String name = args.length > 1 ? args[1] : DEFAULT_STRATEGY;
+		int wrongGuesses = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_WRONG_GUESSES;
+		int threads = args.length > 3 ? Integer.parseInt(args[3])
+				: Runtime.getRuntime().availableProcessors();
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+		HangmanDictionary dictionary = HangmanMain.getDictionary();
+		GuessStrategy strategy = strategy(name, dictionary);
+		if (strategy == null) {
+			System.out.println("Unknown strategy " + name 
+					+ ", use frequency, random, entropy or minimax.");
+			return;
+		}
+		HangmanSimulator simulator = new HangmanSimulator(dictionary, strategy, wrongGuesses,
+				MIN_LENGTH, MAX_LENGTH);
+		System.out.print(simulator.run(games, threads, seed));
+	}
+
+	// returns the strategy with the given name, or null if there is none
+	private static GuessStrategy strategy(String name, HangmanDictionary dictionary) {
+		if (name.equals("frequency")) {
+			return new FrequencyStrategy(dictionary);
+		}
+		if (name.equals("random")) {
+			return new RandomStrategy();
+		}
+		for (SolverStrategy.Objective objective : SolverStrategy.Objective.values()) {
+			if (name.equalsIgnoreCase(objective.name())) {
+				return new SolverStrategy(objective);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Play games on the given number of threads and report how they went.
+	 * pre: games >= 0, threads >= 1
+	 *
+	 * @param games   the number of games to play
+	 * @param threads the number of games to play at once
+	 * @param seed    the seed for every game's random numbers
+	 * @return the results of all the games
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 *                              for the games to finish
+	 */
+	public Report run(long games, int threads, long seed) throws InterruptedException {
+		if (games < 0 || threads < 1) {
+			throw new IllegalArgumentException("Need games >= 0 and threads >= 1.");
+		}
+		AtomicLong next = new AtomicLong();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		Report report = new Report(strategy.toString(), lengths);
+		long start = System.nanoTime();
+		try {
+			List<Future<Report>> workers = new ArrayList<Future<Report>>();
+			for (int i = 0; i < threads; i++) {
+				workers.add(pool.submit(new Worker(next, games, seed)));
+			}
+			for (Future<Report> worker : workers) {
+				report.add(worker.get());
+			}
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("A game failed.", e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+		report.elapsed = System.nanoTime() - start;
+		return report;
+	}
+
+	// plays game number game to the end with hangman, adding it to report
+	private void play(HangmanManager hangman, long game, long seed, Report report) {
+		int length = (int) (game % lengths.length);
+		HangmanDifficulty diff = HangmanDifficulty.values()[
+				(int) (game / lengths.length % HangmanDifficulty.values().length)];
+		SplittableRandom random = new SplittableRandom(seed + game);
+		hangman.setSeed(random.nextLong());
+		hangman.prepForRound(lengths[length], wrongGuesses, diff);
+		int guesses = 0;
+		//a word with characters other than letters can outlast the alphabet
+		while (hangman.getGuessesLeft() > 0 && hangman.getPattern().indexOf('-') >= 0
+				&& guesses < MAX_GUESSES) {
+			hangman.makeGuess(strategy.nextGuess(hangman, random));
+			guesses++;
+		}
+		report.record(diff, length, hangman.getPattern().indexOf('-') < 0, guesses);
+	}
+
+	// plays games, taking the next game number from a shared counter until
+	// every game has been taken, and returns their results
+	private class Worker implements Callable<Report> {
+		private final AtomicLong next;
+		private final long games;
+		private final long seed;
+
+		// construct a worker that plays until next reaches games
+		private Worker(AtomicLong next, long games, long seed) {
+			this.next = next;
+			this.games = games;
+			this.seed = seed;
+		}
+
+		public Report call() {
+			HangmanManager hangman = new HangmanManager(dictionary, false);
+			Report report = new Report(strategy.toString(), lengths);
+			for (long game = next.getAndIncrement(); game < games;
+					game = next.getAndIncrement()) {
+				play(hangman, game, seed, report);
+			}
+			return report;
+		}
+	}
+
+	/**
+	 * The results of a simulation: games and wins for every difficulty and
+	 * length, how many guesses the won games took, and how fast they were
+	 * played. toString gives them as a table.
+	 *
+	 */
+	public static final class Report {
+		private final String strategy;
+		private final int[] lengths;
+		// indexed by difficulty, then by the index of the length in lengths
+		private final long[][] played;
+		private final long[][] won;
+		// indexed by difficulty, then by the number of guesses a won game took
+		private final long[][] guessesToSolve;
+		private long elapsed;
+
+		// construct an empty report for games at the given lengths
+		private Report(String strategy, int[] lengths) {
+			int difficulties = HangmanDifficulty.values().length;
+			this.strategy = strategy;
+			this.lengths = lengths;
+			this.played = new long[difficulties][lengths.length];
+			this.won = new long[difficulties][lengths.length];
+			this.guessesToSolve = new long[difficulties][MAX_GUESSES + 1];
+		}
+
+		// adds one game at the length with the given index
+		private void record(HangmanDifficulty diff, int length, boolean win, int guesses) {
+			played[diff.ordinal()][length]++;
+			if (win) {
+				won[diff.ordinal()][length]++;
+				guessesToSolve[diff.ordinal()][guesses]++;
+			}
+		}
+
+		// adds every game of other, which is for the same lengths
+		private void add(Report other) {
+			for (int diff = 0; diff < played.length; diff++) {
+				for (int length = 0; length < lengths.length; length++) {
+					played[diff][length] += other.played[diff][length];
+					won[diff][length] += other.won[diff][length];
+				}
+				for (int guesses = 0; guesses <= MAX_GUESSES; guesses++) {
+					guessesToSolve[diff][guesses] += other.guessesToSolve[diff][guesses];
+				}
+			}
+		}
+
+		/**
+		 * Returns how many games were played.
+		 *
+		 * @return the number of games
+		 */
+		public long games() {
+			return sum(played);
+		}
+
+		/**
+		 * Returns how many games the strategy won.
+		 *
+		 * @return the number of games won
+		 */
+		public long wins() {
+			return sum(won);
+		}
+
+		/**
+		 * Returns the fraction of games at a difficulty and length that the
+		 * strategy won. pre: diff != null
+		 *
+		 * @param diff   the difficulty
+		 * @param length the word length
+		 * @return the fraction of those games won, 0 if none were played
+		 */
+		public double winRate(HangmanDifficulty diff, int length) {
+			for (int i = 0; i < lengths.length; i++) {
+				if (lengths[i] == length && played[diff.ordinal()][i] > 0) {
+					return (double) won[diff.ordinal()][i] / played[diff.ordinal()][i];
+				}
+			}
+			return 0;
+		}
+
+		/**
+		 * Returns how many games at a difficulty were won in exactly the given
+		 * number of guesses, right and wrong. pre: diff != null
+		 *
+		 * @param diff    the difficulty
+		 * @param guesses the number of guesses
+		 * @return the number of games won in that many guesses
+		 */
+		public long wonIn(HangmanDifficulty diff, int guesses) {
+			return guesses < 0 || guesses > MAX_GUESSES ? 0
+					: guessesToSolve[diff.ordinal()][guesses];
+		}
+
+		/**
+		 * Returns how many games were played per second of the simulation.
+		 *
+		 * @return the number of games per second
+		 */
+		public double gamesPerSecond() {
+			return elapsed == 0 ? 0 : games() * NANOS_PER_SECOND / elapsed;
+		}
+
+		/**
+		 * Returns the report as text: the throughput, the win rate at each
+		 * difficulty and length, and how many won games took each number of
+		 * guesses.
+		 *
+		 * @return the report as a table
+		 */
+		public String toString() {
+			StringBuilder report = new StringBuilder();
+			report.append(String.format("%d games with the %s strategy in %.2f s, %.1f games/s%n",
+					games(), strategy, elapsed / NANOS_PER_SECOND, gamesPerSecond()));
+			report.append(String.format("%n%-8s", "win %"));
+			for (int length : lengths) {
+				report.append(String.format(" %6d", length));
+			}
+			report.append(String.format(" %6s%n", "all"));
+			for (HangmanDifficulty diff : HangmanDifficulty.values()) {
+				long[] diffPlayed = played[diff.ordinal()];
+				long[] diffWon = won[diff.ordinal()];
+				report.append(String.format("%-8s", diff));
+				for (int i = 0; i < lengths.length; i++) {
+					report.append(String.format(" %6.1f", percent(diffWon[i], diffPlayed[i])));
+				}
+				report.append(String.format(" %6.1f%n", percent(sum(diffWon), sum(diffPlayed))));
+			}
+
+			int fewest = MAX_GUESSES;
+			int most = 0;
+			for (long[] counts : guessesToSolve) {
+				for (int guesses = 0; guesses <= MAX_GUESSES; guesses++) {
+					if (counts[guesses] > 0) {
+						fewest = Math.min(fewest, guesses);
+						most = Math.max(most, guesses);
+					}
+				}
+			}
+			if (fewest <= most) {
+				report.append(String.format("%n%-8s", "guesses"));
+				for (int guesses = fewest; guesses <= most; guesses++) {
+					report.append(String.format(" %6d", guesses));
+				}
+				report.append(String.format("%n"));
+				for (HangmanDifficulty diff : HangmanDifficulty.values()) {
+					report.append(String.format("%-8s", diff));
+					for (int guesses = fewest; guesses <= most; guesses++) {
+						report.append(String.format(" %6d", wonIn(diff, guesses)));
+					}
+					report.append(String.format("%n"));
+				}
+			}
+			return report.toString();
+		}
+
+		// returns part as a percentage of whole, 0 if whole is 0
+		private static double percent(long part, long whole) {
+			return whole == 0 ? 0 : PERCENT * part / whole;
+		}
+
+		// returns the sum of every count in counts
+		private static long sum(long[] counts) {
+			long sum = 0;
+			for (long count : counts) {
+				sum += count;
+			}
+			return sum;
+		}
+
+		// returns the sum of every count in counts
+		private static long sum(long[][] counts) {
+			long sum = 0;
+			for (long[] row : counts) {
+				sum += sum(row);
+			}
+			return sum;
+		}
+	}
+}
@@ -0,0 +1,86 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts non-negative values in buckets whose width grows with the value, the
+ * way HdrHistogram does, so it needs a fixed 960 counters to cover every long
+ * and reports any percentile to within about 6% of the true value. Values
+ * below 32 are counted exactly. Any number of threads may record at once.
+ *
+ */
+final class Histogram {
+	// each power of two above the exact range is split into 16 buckets
+	private static final int SUB_BITS = 5;
+	private static final int EXACT = 1 << SUB_BITS;
+	private static final int HALF = EXACT >>> 1;
+	private static final int BUCKETS = (Long.SIZE - SUB_BITS + 1) * HALF;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	// counts value, which is taken as 0 if it is negative
+	void record(long value) {
+		value = Math.max(0, value);
+		counts.incrementAndGet(index(value));
+		count.increment();
+		sum.add(value);
+		max.accumulate(value);
+	}
+
+	// returns how many values have been recorded
+	long count() {
+		return count.sum();
+	}
+
+	// returns the mean of the recorded values, 0 if there are none
+	double mean() {
+		long n = count.sum();
+		return n == 0 ? 0 : (double) sum.sum() / n;
+	}
+
+	// returns the largest recorded value, 0 if there are none
+	long max() {
+		return max.get();
+	}
+
+	// returns the highest value in the bucket that holds the given percentile
+	// of the recorded values, at most max(), or 0 if there are none
+	long percentile(double percentile) {
+		long n = count.sum();
+		if (n == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(n * Math.min(100, percentile) / 100));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return Math.min(highest(i), max());
+			}
+		}
+		return max();
+	}
+
+	// returns the bucket that counts value. values from 2^e up to 2^(e + 1) - 1
+	// share 16 buckets of width 2^(e - 4)
+	private static int index(long value) {
+		if (value < EXACT) {
+			return (int) value;
+		}
+		int shift = Long.SIZE - SUB_BITS - Long.numberOfLeadingZeros(value);
+		return shift * HALF + (int) (value >>> shift);
+	}
+
+	// returns the highest value counted by bucket index
+	private static long highest(int index) {
+		if (index < EXACT) {
+			return index;
+		}
+		int shift = index / HALF - 1;
+		long lowest = (long) (index % HALF + HALF) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+}
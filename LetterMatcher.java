@@ -0,0 +1,25 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Finds where a letter appears in a run of packed words, for WordBucket to
+ * build its letter masks a letter at a time. The only implementation is
+ * VectorLetterMatcher, which uses the incubating Vector API and so lives in
+ * the vector directory, outside the default build. See WordBucket for how it
+ * is turned on.
+ *
+ */
+interface LetterMatcher {
+
+	/**
+	 * Mark the characters at indexes from to to - 1 of rows that equal letter.
+	 * pre: 0 <= from <= to <= rows.limit(), matches.length * 64 >= to - from
+	 *
+	 * @param rows    the packed characters to search
+	 * @param from    the index of the first character to search
+	 * @param to      one past the index of the last character to search
+	 * @param letter  the character to look for
+	 * @param matches gets bit k set when rows.get(from + k) == letter, and every
+	 *                other bit cleared
+	 */
+	void match(ByteBuffer rows, int from, int to, byte letter, long[] matches);
+}
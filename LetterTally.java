@@ -0,0 +1,88 @@
+/**
+ * How each letter would split the words still live in a round: how many of
+ * them have the letter, how many are in the largest family guessing it would
+ * make, and how much guessing it would tell about the word.
+ * HangmanManager.tallyLetters fills one in a single pass over the live words
+ * without changing the round, so hints and solvers can ask before every
+ * guess. A LetterTally can be refilled any number of times, so asking again
+ * costs no new objects.
+ *
+ */
+public final class LetterTally {
+	private final int[] wordsWith = new int[WordBucket.LETTERS];
+	private final int[] largestFamily = new int[WordBucket.LETTERS];
+	private final double[] information = new double[WordBucket.LETTERS];
+	private int liveWords;
+
+	/**
+	 * Create an empty tally for HangmanManager.tallyLetters to fill.
+	 */
+	public LetterTally() {
+	}
+
+	/**
+	 * Returns the number of live words when the tally was taken.
+	 *
+	 * @return the number of live words
+	 */
+	public int liveWords() {
+		return liveWords;
+	}
+
+	/**
+	 * Returns how many live words have the letter. For a letter that has been
+	 * guessed this is every live word or none of them. pre: 'a' <= letter <=
+	 * 'z'
+	 *
+	 * @param letter the letter to count
+	 * @return the number of live words with the letter
+	 */
+	public int wordsWith(char letter) {
+		return wordsWith[index(letter)];
+	}
+
+	/**
+	 * Returns how many words would be in the largest family if the letter were
+	 * guessed, counting the family of words without it. For a letter that has
+	 * been guessed this is every live word. pre: 'a' <= letter <= 'z'
+	 *
+	 * @param letter the letter to guess
+	 * @return the size of the largest family the letter would make
+	 */
+	public int largestFamily(char letter) {
+		return largestFamily[index(letter)];
+	}
+
+	/**
+	 * Returns how much guessing the letter would tell about the secret word,
+	 * in nats, if it were any live word with equal chance: the entropy of the
+	 * sizes of the families the letter would make. For a letter that has been
+	 * guessed this is 0. pre: 'a' <= letter <= 'z'
+	 *
+	 * @param letter the letter to guess
+	 * @return the expected information of guessing the letter
+	 */
+	public double information(char letter) {
+		return information[index(letter)];
+	}
+
+	// sets the counts of the letter index
+	void set(int letter, int wordsWith, int largestFamily, double information) {
+		this.wordsWith[letter] = wordsWith;
+		this.largestFamily[letter] = largestFamily;
+		this.information[letter] = information;
+	}
+
+	// sets the number of live words
+	void setLiveWords(int liveWords) {
+		this.liveWords = liveWords;
+	}
+
+	// returns the index of letter in the arrays
+	private static int index(char letter) {
+		if (letter < 'a' || letter > 'z') {
+			throw new IllegalArgumentException("The letter must be a lowercase letter.");
+		}
+		return letter - 'a';
+	}
+}
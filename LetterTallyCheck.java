@@ -0,0 +1,105 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Checks that tallyLetters agrees with makeGuess. It plays games of random
+ * lengths and difficulties with random guesses, and before each of the first
+ * guesses of a game tallies the letters. For every letter not guessed yet a
+ * new HangmanManager replays the guesses so far and then guesses the letter,
+ * and the families makeGuess returns must give the tally's count of words
+ * with the letter, its largest family and its information. Letters already
+ * guessed must count every live word or none, with no information.
+ * <br>
+ * <br>Usage: java LetterTallyCheck [dictionary file] [games] [seed]
+ *
+ */
+public class LetterTallyCheck {
+	private static final String DEFAULT_FILE = "dictionary.txt";
+	private static final int DEFAULT_GAMES = 200;
+	private static final int MIN_LENGTH = 3;
+	private static final int MAX_LENGTH = 12;
+	// enough that a game is never lost before its states are checked
+	private static final int WRONG_GUESSES = 26;
+	private static final int STATES_PER_GAME = 6;
+	private static final double TOLERANCE = 1e-9;
+
+	// Run the check.
+	public static void main(String[] args) throws IOException {
+		File file = new File(args.length > 0 ? args[0] : DEFAULT_FILE);
+		int games = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_GAMES;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+		HangmanDictionary dictionary = new HangmanDictionary(DictionaryReader.read(file));
+		HangmanDifficulty[] difficulties = HangmanDifficulty.values();
+		SplittableRandom random = new SplittableRandom(seed);
+		LetterTally tally = new LetterTally();
+		int states = 0;
+		for (int game = 0; game < games; game++) {
+			int length = MIN_LENGTH + random.nextInt(MAX_LENGTH - MIN_LENGTH + 1);
+			if (dictionary.numWords(length) == 0) {
+				continue;
+			}
+			HangmanDifficulty diff = difficulties[random.nextInt(difficulties.length)];
+			HangmanManager hangman = new HangmanManager(dictionary, false);
+			hangman.prepForRound(length, WRONG_GUESSES, diff);
+			StringBuilder guesses = new StringBuilder();
+			while (guesses.length() < STATES_PER_GAME && hangman.getPattern().indexOf('-') >= 0) {
+				hangman.tallyLetters(tally);
+				if (tally.liveWords() != hangman.numWordsCurrent()) {
+					throw new IllegalStateException("The tally of game " + game + " after "
+							+ guesses + " has the wrong number of live words.");
+				}
+				for (char letter = 'a'; letter <= 'z'; letter++) {
+					if (!matches(tally, letter, hangman, dictionary, diff, guesses)) {
+						throw new IllegalStateException("The tally of " + letter + " in game "
+								+ game + " after " + guesses + " does not match makeGuess.");
+					}
+				}
+				states++;
+				char guess;
+				do {
+					guess = (char) ('a' + random.nextInt(WordBucket.LETTERS));
+				} while (guesses.indexOf(String.valueOf(guess)) >= 0);
+				guesses.append(guess);
+				hangman.makeGuess(guess);
+			}
+		}
+		System.out.println(games + " games, " + states + " states tallied, seed " + seed
+				+ ": tallies match");
+	}
+
+	// returns true if the tally of letter is what guessing it after guesses
+	// does in a new round like hangman's
+	private static boolean matches(LetterTally tally, char letter, HangmanManager hangman,
+			HangmanDictionary dictionary, HangmanDifficulty diff, CharSequence guesses) {
+		int live = hangman.numWordsCurrent();
+		if ((hangman.guessedLetters() & 1 << letter - 'a') != 0) {
+			int with = hangman.getPattern().indexOf(letter) >= 0 ? live : 0;
+			return tally.wordsWith(letter) == with && tally.largestFamily(letter) == live
+					&& tally.information(letter) == 0;
+		}
+		HangmanManager replay = new HangmanManager(dictionary, false);
+		replay.prepForRound(hangman.getPattern().length(), WRONG_GUESSES, diff);
+		for (int i = 0; i < guesses.length(); i++) {
+			replay.makeGuess(guesses.charAt(i));
+		}
+		if (!replay.getPattern().equals(hangman.getPattern())) {
+			throw new IllegalStateException("Replaying " + guesses + " gave a different round.");
+		}
+		int with = 0;
+		int largest = 0;
+		double information = 0;
+		for (Map.Entry<String, Integer> family : replay.makeGuess(letter).entrySet()) {
+			int size = family.getValue();
+			if (family.getKey().indexOf(letter) >= 0) {
+				with += size;
+			}
+			largest = Math.max(largest, size);
+			double share = (double) size / live;
+			information -= share * Math.log(share);
+		}
+		return tally.wordsWith(letter) == with && tally.largestFamily(letter) == largest
+				&& Math.abs(tally.information(letter) - information) <= TOLERANCE;
+	}
+}
@@ -0,0 +1,45 @@
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A line oriented, two way text connection to one player, such as standard
+ * input and output, a socket, or an in memory pipe. Output may be buffered
+ * until the next readLine, so a prompt printed without a newline always
+ * reaches the player before the game waits for their answer.
+ *
+ */
+public interface LineChannel extends Closeable {
+
+	/**
+	 * Send any buffered output, then wait for the next line from the player.
+	 *
+	 * @return the next line without its line terminator
+	 * @throws java.io.EOFException if the player has closed their end
+	 * @throws IOException          if the channel fails
+	 */
+	String readLine() throws IOException;
+
+	/**
+	 * Send text to the player without ending the line.
+	 *
+	 * @param text the text to send
+	 */
+	void print(String text);
+
+	/**
+	 * Send text to the player and end the line.
+	 *
+	 * @param text the text to send
+	 */
+	void println(String text);
+
+	/**
+	 * End the current line of output.
+	 */
+	void println();
+
+	/**
+	 * Send any buffered output and close the channel.
+	 */
+	void close();
+}
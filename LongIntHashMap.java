@@ -0,0 +1,101 @@
+import java.util.Arrays;
+
+/**
+ * A small open addressing hash map from primitive long keys to primitive int
+ * values. Entries are kept in insertion order so they can be walked by index
+ * with keyAt and valueAt. Nothing is boxed, which keeps it cheap enough to use
+ * once per word on the makeGuess path.
+ *
+ */
+final class LongIntHashMap {
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	private int[] values;
+	private int size;
+	// slots of the hash table hold the index of the entry plus one, 0 is empty
+	private int[] table;
+	private int shift;
+
+	// construct an empty map
+	LongIntHashMap() {
+		keys = new long[MIN_CAPACITY];
+		values = new int[MIN_CAPACITY];
+		table = new int[MIN_CAPACITY * 2];
+		shift = Long.SIZE - Integer.numberOfTrailingZeros(table.length);
+	}
+
+	// returns the number of entries in the map
+	int size() {
+		return size;
+	}
+
+	// returns the key of the entry at the given insertion index
+	long keyAt(int index) {
+		return keys[index];
+	}
+
+	// returns the value of the entry at the given insertion index
+	int valueAt(int index) {
+		return values[index];
+	}
+
+	// adds delta to the value for key, treating a missing key as 0
+	void addTo(long key, int delta) {
+		int slot = find(key);
+		if (table[slot] != 0) {
+			values[table[slot] - 1] += delta;
+		} else {
+			append(slot, key, delta);
+		}
+	}
+
+	// adds every entry of other to this map, summing values of equal keys
+	void addAll(LongIntHashMap other) {
+		for (int i = 0; i < other.size; i++) {
+			addTo(other.keys[i], other.values[i]);
+		}
+	}
+
+	// removes all entries but keeps the storage for reuse
+	void clear() {
+		if (size > 0) {
+			Arrays.fill(table, 0);
+			size = 0;
+		}
+	}
+
+	// returns the table slot that holds key, or the empty slot it belongs in
+	private int find(long key) {
+		int mask = table.length - 1;
+		int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+		while (table[slot] != 0 && keys[table[slot] - 1] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	// adds a new entry in the given empty slot, growing when half full
+	private void append(int slot, long key, int value) {
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			values = Arrays.copyOf(values, size * 2);
+		}
+		keys[size] = key;
+		values[size] = value;
+		size++;
+		table[slot] = size;
+		if (size * 2 > table.length) {
+			rehash(table.length * 2);
+		}
+	}
+
+	// rebuilds the hash table with the given number of slots
+	private void rehash(int capacity) {
+		table = new int[capacity];
+		shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+		for (int i = 0; i < size; i++) {
+			table[find(keys[i])] = i + 1;
+		}
+	}
+}
@@ -0,0 +1,88 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * One end of an in memory pipe of lines, used to run games without a terminal
+ * or socket. Whatever one end prints becomes lines the other end reads. Text
+ * printed without a newline, such as a prompt, is sent as a line of its own
+ * when its end next calls readLine or close.
+ *
+ */
+final class MemoryLineChannel implements LineChannel {
+	// put in a queue after the last line, compared by identity
+	private static final String END = new String("end of input");
+
+	private final BlockingQueue<String> incoming;
+	private final BlockingQueue<String> outgoing;
+	private final StringBuilder pending;
+	private boolean closed;
+
+	// construct one end of a pipe from the two queues between the ends
+	private MemoryLineChannel(BlockingQueue<String> incoming, BlockingQueue<String> outgoing) {
+		this.incoming = incoming;
+		this.outgoing = outgoing;
+		this.pending = new StringBuilder();
+	}
+
+	/**
+	 * Create a connected pair of channels. Each end should only be used by one
+	 * thread at a time, but the two ends may be used by different threads.
+	 *
+	 * @return an array of the two ends of the pipe
+	 */
+	static MemoryLineChannel[] pair() {
+		BlockingQueue<String> one = new LinkedBlockingQueue<String>();
+		BlockingQueue<String> two = new LinkedBlockingQueue<String>();
+		return new MemoryLineChannel[] { new MemoryLineChannel(one, two),
+				new MemoryLineChannel(two, one) };
+	}
+
+	public String readLine() throws IOException {
+		flush();
+		try {
+			String line = incoming.take();
+			if (line == END) {
+				// leave the marker for any later reads
+				incoming.add(END);
+				throw new EOFException("The other end of the pipe was closed.");
+			}
+			return line;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted waiting for a line.");
+		}
+	}
+
+	public void print(String text) {
+		pending.append(text);
+	}
+
+	public void println(String text) {
+		pending.append(text);
+		outgoing.add(pending.toString());
+		pending.setLength(0);
+	}
+
+	public void println() {
+		println("");
+	}
+
+	public void close() {
+		if (!closed) {
+			flush();
+			outgoing.add(END);
+			closed = true;
+		}
+	}
+
+	// sends a partly printed line
+	private void flush() {
+		if (pending.length() > 0) {
+			outgoing.add(pending.toString());
+			pending.setLength(0);
+		}
+	}
+}
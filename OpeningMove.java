@@ -0,0 +1,74 @@
+/**
+ * What the first guess of a round does with one letter at one word length: how
+ * the whole length bucket splits into families, and the family that was kept.
+ * Before the first guess every round of a length has the same live words and
+ * the same blank pattern, so this is the same for every round, and a
+ * HangmanDictionary keeps the common ones so later rounds can skip the scan.
+ * An OpeningMove never changes once it is made.
+ *
+ */
+final class OpeningMove {
+	// rough heap cost of the object and the headers of its four arrays
+	private static final int OVERHEAD = 48 + 4 * 16;
+
+	// family i has the letter at the positions in masks[i] and sizes[i] words
+	private final long[] masks;
+	private final int[] sizes;
+	private final long chosen;
+	// the longs from to to - 1 of the bitset of the kept family, the rest are 0
+	private final long[] family;
+	private final int from;
+	private final int to;
+
+	// construct the opening that split the words into the families in
+	// familySizes and kept the one with mask chosen, whose bitset has all its
+	// words in longs from to to - 1 of words
+	OpeningMove(LongIntHashMap familySizes, long chosen, long[] words, int from, int to) {
+		this.masks = new long[familySizes.size()];
+		this.sizes = new int[familySizes.size()];
+		for (int i = 0; i < masks.length; i++) {
+			masks[i] = familySizes.keyAt(i);
+			sizes[i] = familySizes.valueAt(i);
+		}
+		this.chosen = chosen;
+		this.family = new long[to - from];
+		System.arraycopy(words, from, family, 0, family.length);
+		this.from = from;
+		this.to = to;
+	}
+
+	// adds the size of every family to familySizes, keyed by its mask
+	void families(LongIntHashMap familySizes) {
+		for (int i = 0; i < masks.length; i++) {
+			familySizes.addTo(masks[i], sizes[i]);
+		}
+	}
+
+	// returns the mask of the family that was kept
+	long chosen() {
+		return chosen;
+	}
+
+	// copies the bitset of the kept family into longs from() to to() - 1 of
+	// words
+	void family(long[] words) {
+		System.arraycopy(family, 0, words, from, family.length);
+	}
+
+	// returns the first long of the kept family's bitset that has a word in it
+	int from() {
+		return from;
+	}
+
+	// returns one past the last long of the kept family's bitset that has a
+	// word in it
+	int to() {
+		return to;
+	}
+
+	// returns roughly how many bytes of heap this takes
+	long bytes() {
+		return OVERHEAD + (long) masks.length * (Long.BYTES + Integer.BYTES)
+				+ (long) family.length * Long.BYTES;
+	}
+}
@@ -0,0 +1,26 @@
+import java.util.SplittableRandom;
+
+/**
+ * Guesses any letter that has not been guessed yet, each as likely as the
+ * others. A baseline the other strategies should beat.
+ *
+ */
+public final class RandomStrategy implements GuessStrategy {
+
+	public char nextGuess(HangmanManager game, SplittableRandom random) {
+		int unguessed = ~game.guessedLetters() & (1 << WordBucket.LETTERS) - 1;
+		if (unguessed == 0) {
+			throw new IllegalArgumentException("Every letter has been guessed.");
+		}
+		//drops a random number of the lowest unguessed letters, then takes the
+		//next one
+		for (int skip = random.nextInt(Integer.bitCount(unguessed)); skip > 0; skip--) {
+			unguessed &= unguessed - 1;
+		}
+		return (char) ('a' + Integer.numberOfTrailingZeros(unguessed));
+	}
+
+	public String toString() {
+		return "random";
+	}
+}
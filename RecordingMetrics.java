@@ -0,0 +1,237 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * HangmanMetrics that keep every measurement: a count of calls and of guesses
+ * answered from the dictionary's cache, and a histogram for each of the times
+ * of prepForRound, makeGuess and getSecretWord, the sizes of the round's
+ * starting words and of the kept families, the number of patterns per guess,
+ * and the bytes each guess allocates. Read them as text with dump, or register
+ * them with the platform MBean server and watch them in any JMX console.
+ *
+ */
+public final class RecordingMetrics implements HangmanMetrics, DynamicMBean {
+	private static final String DOMAIN = "hangman";
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+	private final Histogram prepNanos = new Histogram();
+	private final Histogram roundWords = new Histogram();
+	private final Histogram guessNanos = new Histogram();
+	private final Histogram patterns = new Histogram();
+	private final Histogram familySizes = new Histogram();
+	private final Histogram guessBytes = new Histogram();
+	private final Histogram secretNanos = new Histogram();
+	private final LongAdder remembered = new LongAdder();
+	// every histogram under the name it is dumped and exported with
+	private final Map<String, Histogram> histograms = new LinkedHashMap<String, Histogram>();
+
+	/**
+	 * Create metrics that have not recorded anything yet.
+	 */
+	public RecordingMetrics() {
+		histograms.put("prepForRound.nanos", prepNanos);
+		histograms.put("prepForRound.words", roundWords);
+		histograms.put("makeGuess.nanos", guessNanos);
+		histograms.put("makeGuess.patterns", patterns);
+		histograms.put("makeGuess.familySize", familySizes);
+		histograms.put("makeGuess.bytes", guessBytes);
+		histograms.put("getSecretWord.nanos", secretNanos);
+	}
+
+	public void roundPrepared(long nanos, int words) {
+		prepNanos.record(nanos);
+		roundWords.record(words);
+	}
+
+	public void guessMade(long nanos, int families, int familySize, boolean remembered,
+			long bytes) {
+		guessNanos.record(nanos);
+		patterns.record(families);
+		familySizes.record(familySize);
+		if (remembered) {
+			this.remembered.increment();
+		}
+		if (bytes >= 0) {
+			guessBytes.record(bytes);
+		}
+	}
+
+	public void secretWordPicked(long nanos) {
+		secretNanos.record(nanos);
+	}
+
+	/**
+	 * Returns how many calls to makeGuess have been recorded.
+	 *
+	 * @return the number of guesses
+	 */
+	public long guesses() {
+		return guessNanos.count();
+	}
+
+	/**
+	 * Returns how many recorded guesses took their families from the
+	 * dictionary's cache instead of the words.
+	 *
+	 * @return the number of guesses answered from the cache
+	 */
+	public long rememberedGuesses() {
+		return remembered.sum();
+	}
+
+	/**
+	 * Returns every measurement as a table with one line per histogram: the
+	 * number of values, their mean, the 50th, 90th, 99th and 99.9th
+	 * percentiles, and the largest, followed by the number of guesses answered
+	 * from the cache.
+	 *
+	 * @return the measurements as text
+	 */
+	public String dump() {
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("%-22s %10s %12s", "metric", "count", "mean"));
+		for (double percentile : PERCENTILES) {
+			report.append(String.format(" %10s", "p" + format(percentile)));
+		}
+		report.append(String.format(" %12s%n", "max"));
+		for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+			Histogram histogram = entry.getValue();
+			report.append(String.format("%-22s %10d %12.1f", entry.getKey(), histogram.count(),
+					histogram.mean()));
+			for (double percentile : PERCENTILES) {
+				report.append(String.format(" %10d", histogram.percentile(percentile)));
+			}
+			report.append(String.format(" %12d%n", histogram.max()));
+		}
+		report.append(String.format("%-22s %10d%n", "makeGuess.remembered",
+				rememberedGuesses()));
+		return report.toString();
+	}
+
+	/**
+	 * Register these metrics with the platform MBean server as
+	 * hangman:type=RecordingMetrics,name=name, so JMX consoles can read them.
+	 * Each histogram shows as attributes named after it, such as
+	 * makeGuess.nanos.p99, and the operation dump returns the text of dump().
+	 * pre: name != null
+	 *
+	 * @param name the name to tell these metrics apart from others
+	 * @return the name they were registered under
+	 * @throws JMException if the name is not valid or is already taken
+	 */
+	public ObjectName register(String name) throws JMException {
+		if (name == null) {
+			throw new IllegalArgumentException("The name may not be null.");
+		}
+		ObjectName objectName = new ObjectName(DOMAIN + ":type=" + getClass().getSimpleName()
+				+ ",name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+		return objectName;
+	}
+
+	public Object getAttribute(String attribute) throws AttributeNotFoundException {
+		if (attribute.equals("guesses")) {
+			return guesses();
+		}
+		if (attribute.equals("makeGuess.remembered")) {
+			return rememberedGuesses();
+		}
+		int dot = attribute.lastIndexOf('.');
+		Histogram histogram = dot < 0 ? null : histograms.get(attribute.substring(0, dot));
+		if (histogram != null) {
+			String statistic = attribute.substring(dot + 1);
+			if (statistic.equals("count")) {
+				return histogram.count();
+			}
+			if (statistic.equals("mean")) {
+				return histogram.mean();
+			}
+			if (statistic.equals("max")) {
+				return histogram.max();
+			}
+			for (double percentile : PERCENTILES) {
+				if (statistic.equals("p" + format(percentile))) {
+					return histogram.percentile(percentile);
+				}
+			}
+		}
+		throw new AttributeNotFoundException(attribute);
+	}
+
+	public AttributeList getAttributes(String[] attributes) {
+		AttributeList values = new AttributeList();
+		for (String attribute : attributes) {
+			try {
+				values.add(new Attribute(attribute, getAttribute(attribute)));
+			} catch (AttributeNotFoundException e) {
+				// left out, as the interface asks
+			}
+		}
+		return values;
+	}
+
+	public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+		throw new AttributeNotFoundException("Metrics are read only.");
+	}
+
+	public AttributeList setAttributes(AttributeList attributes) {
+		return new AttributeList();
+	}
+
+	public Object invoke(String action, Object[] params, String[] signature)
+			throws ReflectionException {
+		if (action.equals("dump")) {
+			return dump();
+		}
+		throw new ReflectionException(new NoSuchMethodException(action));
+	}
+
+	public MBeanInfo getMBeanInfo() {
+		List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+		attributes.add(counter("guesses", "Calls to makeGuess"));
+		attributes.add(counter("makeGuess.remembered", "Guesses answered from the cache"));
+		for (String name : histograms.keySet()) {
+			attributes.add(counter(name + ".count", "Values recorded"));
+			attributes.add(new MBeanAttributeInfo(name + ".mean", "double", "Mean value",
+					true, false, false));
+			for (double percentile : PERCENTILES) {
+				attributes.add(counter(name + ".p" + format(percentile),
+						format(percentile) + "th percentile"));
+			}
+			attributes.add(counter(name + ".max", "Largest value"));
+		}
+		MBeanOperationInfo dump = new MBeanOperationInfo("dump", "Every metric as text",
+				new MBeanParameterInfo[0], "java.lang.String", MBeanOperationInfo.INFO);
+		return new MBeanInfo(getClass().getName(), "Costs of HangmanManager calls",
+				attributes.toArray(new MBeanAttributeInfo[0]), null,
+				new MBeanOperationInfo[] { dump }, null);
+	}
+
+	// describes a read only attribute holding a long
+	private static MBeanAttributeInfo counter(String name, String description) {
+		return new MBeanAttributeInfo(name, "long", description, true, false, false);
+	}
+
+	// returns percentile without a fraction if it is whole, so 99 is "99" and
+	// 99.9 is "99.9"
+	private static String format(double percentile) {
+		return percentile == (long) percentile ? Long.toString((long) percentile)
+				: Double.toString(percentile);
+	}
+}
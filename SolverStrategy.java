@@ -0,0 +1,94 @@
+import java.util.SplittableRandom;
+
+/**
+ * Guesses the letter that tells the most about the secret word, judged by how
+ * the letter would split the live words into families. With ENTROPY it picks
+ * the letter whose families carry the most information if the word were any
+ * live word with equal chance. With MINIMAX it picks the letter whose largest
+ * family is smallest, which is the best a player can do when HangmanManager
+ * keeps the largest family on HARD. Either way the other measure breaks ties,
+ * then the letter found in the most live words, then the earlier letter.
+ * <br>
+ * <br>The measures of every letter come from one HangmanManager.tallyLetters,
+ * a single pass over the live words, so a guess costs about as much as one
+ * makeGuess.
+ *
+ */
+public final class SolverStrategy implements GuessStrategy {
+
+	/**
+	 * What a SolverStrategy aims for.
+	 */
+	public enum Objective {
+		/** The most expected information. */
+		ENTROPY,
+		/** The smallest largest family. */
+		MINIMAX
+	}
+
+	// one tally for each thread, refilled by every guess on it
+	private static final ThreadLocal<LetterTally> TALLY =
+			ThreadLocal.withInitial(LetterTally::new);
+
+	private final Objective objective;
+
+	/**
+	 * Create a solver that aims for the given objective. pre: objective != null
+	 *
+	 * @param objective what the solver aims for
+	 */
+	public SolverStrategy(Objective objective) {
+		if (objective == null) {
+			throw new IllegalArgumentException("The objective may not be null.");
+		}
+		this.objective = objective;
+	}
+
+	public char nextGuess(HangmanManager game, SplittableRandom random) {
+		int unguessed = ~game.guessedLetters() & (1 << WordBucket.LETTERS) - 1;
+		if (unguessed == 0) {
+			throw new IllegalArgumentException("Every letter has been guessed.");
+		}
+		LetterTally tally = TALLY.get();
+		game.tallyLetters(tally);
+
+		int best = -1;
+		double bestEntropy = 0;
+		int bestLargest = 0;
+		int bestWith = 0;
+		for (int letters = unguessed; letters != 0; letters &= letters - 1) {
+			int letter = Integer.numberOfTrailingZeros(letters);
+			char guess = (char) ('a' + letter);
+			double entropy = tally.information(guess);
+			int largest = tally.largestFamily(guess);
+			int with = tally.wordsWith(guess);
+			if (best < 0 || better(entropy, largest, with, bestEntropy, bestLargest, bestWith)) {
+				best = letter;
+				bestEntropy = entropy;
+				bestLargest = largest;
+				bestWith = with;
+			}
+		}
+		return (char) ('a' + best);
+	}
+
+	public String toString() {
+		return objective.name().toLowerCase();
+	}
+
+	// returns true if a letter with the first three measures beats one with
+	// the last three
+	private boolean better(double entropy, int largest, int with, double bestEntropy,
+			int bestLargest, int bestWith) {
+		if (objective == Objective.MINIMAX && largest != bestLargest) {
+			return largest < bestLargest;
+		}
+		if (entropy != bestEntropy) {
+			return entropy > bestEntropy;
+		}
+		if (largest != bestLargest) {
+			return largest < bestLargest;
+		}
+		return with > bestWith;
+	}
+}
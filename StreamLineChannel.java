@@ -0,0 +1,59 @@
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * A LineChannel over a pair of byte streams, such as System.in and System.out
+ * or the streams of a socket. Output is flushed before every read rather than
+ * after every line, which saves a system call per line on sockets.
+ *
+ */
+final class StreamLineChannel implements LineChannel {
+	private final BufferedReader in;
+	private final PrintWriter out;
+
+	// construct a channel reading lines from in and writing text to out
+	StreamLineChannel(InputStream in, OutputStream out) {
+		if (in == null || out == null) {
+			throw new IllegalArgumentException("The streams may not be null.");
+		}
+		this.in = new BufferedReader(new InputStreamReader(in));
+		this.out = new PrintWriter(new OutputStreamWriter(out));
+	}
+
+	public String readLine() throws IOException {
+		out.flush();
+		String line = in.readLine();
+		if (line == null) {
+			throw new EOFException("The player closed the connection.");
+		}
+		return line;
+	}
+
+	public void print(String text) {
+		out.print(text);
+	}
+
+	public void println(String text) {
+		out.println(text);
+	}
+
+	public void println() {
+		out.println();
+	}
+
+	// flushes and closes both streams
+	public void close() {
+		out.close();
+		try {
+			in.close();
+		} catch (IOException e) {
+			// nothing more can be read from it either way
+		}
+	}
+}
@@ -0,0 +1,225 @@
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Remembers what makeGuess did from a game state, for any HangmanManager
+ * playing with the same dictionary. The words still live in a round are
+ * exactly the words of its length that match the pattern and have none of the
+ * wrongly guessed letters, so the guessed letters and the pattern fix them,
+ * and with the difficulty and the new guess they fix the families and the
+ * pattern makeGuess picks. The word length is the pattern's length.
+ * <br>
+ * <br>Lookups never lock: the outcomes are kept in a ConcurrentHashMap, and a
+ * hit only marks its outcome as used. Once the outcomes pass the limit, the
+ * thread that put the last one sweeps them with a clock hand, clearing the
+ * mark of used outcomes and dropping the ones not used since the hand last
+ * passed, until the cache is back under the limit. Only one thread sweeps at
+ * a time and the others carry on, so the limit is approximate. With a limit
+ * of 0 the cache is off, and callers check enabled to skip it.
+ *
+ */
+final class TransitionCache {
+	private final ConcurrentHashMap<Key, Outcome> outcomes =
+			new ConcurrentHashMap<Key, Outcome>();
+	private final AtomicLong bytes = new AtomicLong();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final ReentrantLock sweeping = new ReentrantLock();
+	// where the last sweep stopped. guarded by sweeping
+	private Iterator<Map.Entry<Key, Outcome>> hand;
+	private volatile long limit;
+
+	// construct an empty cache that holds outcomes of about limit bytes in
+	// total
+	TransitionCache(long limit) {
+		this.limit = limit;
+	}
+
+	// returns what guessing the letter index did from the given state, or null
+	// if it is not known
+	Outcome get(HangmanDifficulty diff, int guessed, String pattern, int letter) {
+		Outcome outcome = outcomes.get(new Key(diff, guessed, pattern, letter));
+		if (outcome == null) {
+			misses.increment();
+		} else {
+			// only write when the mark changes, so hits on a popular state do
+			// not keep taking its cache line from the other cores
+			if (!outcome.used) {
+				outcome.used = true;
+			}
+			hits.increment();
+		}
+		return outcome;
+	}
+
+	// remembers what guessing the letter index did from the given state. if
+	// another thread remembered it first its outcome is kept
+	void put(HangmanDifficulty diff, int guessed, String pattern, int letter, Outcome outcome) {
+		Key key = new Key(diff, guessed, pattern, letter);
+		if (outcomes.putIfAbsent(key, outcome) == null
+				&& bytes.addAndGet(outcome.bytes()) > limit && sweeping.tryLock()) {
+			try {
+				sweep();
+			} finally {
+				sweeping.unlock();
+			}
+		}
+	}
+
+	// changes the limit on the total size of the outcomes, dropping outcomes
+	// if the cache is now over it
+	void setLimit(long limit) {
+		this.limit = limit;
+		sweeping.lock();
+		try {
+			sweep();
+		} finally {
+			sweeping.unlock();
+		}
+	}
+
+	// returns false if the limit is 0, so nothing should be looked up or
+	// remembered
+	boolean enabled() {
+		return limit != 0;
+	}
+
+	// returns how many lookups found an outcome
+	long hits() {
+		return hits.sum();
+	}
+
+	// returns how many lookups found nothing
+	long misses() {
+		return misses.sum();
+	}
+
+	// returns how many outcomes have been dropped to stay under the limit
+	long evictions() {
+		return evictions.sum();
+	}
+
+	// returns roughly how many bytes the outcomes take
+	long bytes() {
+		return bytes.get();
+	}
+
+	// moves the clock hand on until the outcomes are under the limit. gives
+	// up after going round twice, which drops everything not used while the
+	// hand goes round, so the next put sweeps again. pre: holds sweeping
+	private void sweep() {
+		long steps = 2L * outcomes.size() + 1;
+		while (bytes.get() > limit && steps-- > 0) {
+			if (hand == null || !hand.hasNext()) {
+				hand = outcomes.entrySet().iterator();
+				if (!hand.hasNext()) {
+					return;
+				}
+			}
+			Map.Entry<Key, Outcome> entry = hand.next();
+			Outcome outcome = entry.getValue();
+			if (outcome.used) {
+				outcome.used = false;
+			} else if (outcomes.remove(entry.getKey(), outcome)) {
+				bytes.addAndGet(-outcome.bytes());
+				evictions.increment();
+			}
+		}
+	}
+
+	// a game state and the letter index guessed from it
+	private static class Key {
+		private final HangmanDifficulty diff;
+		private final int guessed;
+		private final String pattern;
+		private final int letter;
+
+		// construct the key for a state and guess
+		private Key(HangmanDifficulty diff, int guessed, String pattern, int letter) {
+			this.diff = diff;
+			this.guessed = guessed;
+			this.pattern = pattern;
+			this.letter = letter;
+		}
+
+		// returns true if other is a key for the same state and guess
+		public boolean equals(Object other) {
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) other;
+			return diff == key.diff && guessed == key.guessed && letter == key.letter
+					&& pattern.equals(key.pattern);
+		}
+
+		// returns a hash of the state and guess
+		public int hashCode() {
+			return ((diff.ordinal() * 31 + guessed) * 31 + letter) * 31 + pattern.hashCode();
+		}
+	}
+
+	/**
+	 * What one makeGuess did: the families it split the live words into, and
+	 * the pattern it picked. These never change once it is made, only the
+	 * mark the cache keeps on it.
+	 */
+	static final class Outcome {
+		// rough heap cost of the object, its arrays and the key that maps to it
+		private static final int OVERHEAD = 128;
+		private static final int STRING_OVERHEAD = 48;
+
+		private final String[] patterns;
+		private final int[] sizes;
+		private final String pattern;
+		private final int familySize;
+		// set when a lookup finds this outcome, cleared when the clock hand
+		// passes it
+		private volatile boolean used;
+
+		// construct the outcome that made the families in familyCount and
+		// picked pattern
+		Outcome(TreeMap<String, Integer> familyCount, String pattern) {
+			this.patterns = new String[familyCount.size()];
+			this.sizes = new int[familyCount.size()];
+			int i = 0;
+			for (Map.Entry<String, Integer> family : familyCount.entrySet()) {
+				patterns[i] = family.getKey();
+				sizes[i] = family.getValue();
+				i++;
+			}
+			this.pattern = pattern;
+			this.familySize = familyCount.get(pattern);
+		}
+
+		// returns a new map of each family's pattern to its number of words
+		TreeMap<String, Integer> families() {
+			TreeMap<String, Integer> familyCount = new TreeMap<String, Integer>();
+			for (int i = 0; i < patterns.length; i++) {
+				familyCount.put(patterns[i], sizes[i]);
+			}
+			return familyCount;
+		}
+
+		// returns the pattern that was picked
+		String pattern() {
+			return pattern;
+		}
+
+		// returns the number of words in the family that was picked
+		int familySize() {
+			return familySize;
+		}
+
+		// returns roughly how many bytes of heap this takes
+		long bytes() {
+			return OVERHEAD + (long) patterns.length
+					* (STRING_OVERHEAD + pattern.length() + 2 * Integer.BYTES);
+		}
+	}
+}
@@ -0,0 +1,313 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The words of one length in a HangmanDictionary, together with a table of
+ * where each letter appears in each word. The words are stored one after the
+ * other in a single buffer, one byte per character, rather than as separate
+ * Strings, and a String is only made for a word when one is asked
+ * for. The table is filled in when the bucket is built, so finding the family
+ * a word falls into for a guess is one lookup rather than a scan of the
+ * word. Words are numbered 0 to size() - 1, and a bucket never changes once it
+ * is built.
+ * <br>
+ * <br>A bucket also keeps an inverted index of bitsets over the word numbers,
+ * bit i of block b standing for word b * 64 + i: one bitset of the words with
+ * each letter at each position, and one of the words with each letter
+ * anywhere. A set of words kept as the same kind of bitset can then be
+ * narrowed to one family with a pass of AND or AND NOT per position.
+ * <br>
+ * <br>The words, masks and bitsets are all kept off the Java heap in direct
+ * buffers, or for a snapshot the words are read straight from the mapped
+ * file, so however many words there are a bucket is only a few objects for
+ * the garbage collector to look at.
+ * <br>
+ * <br>The masks and bitsets are normally built a word at a time. When the
+ * game is built with the vector profile and run with -Dhangman.vector=true
+ * and --add-modules jdk.incubator.vector, they are built a letter at a time
+ * instead, with VectorLetterMatcher comparing many characters with the letter
+ * at once. If the class or the module is missing the word at a time build is
+ * used. Both give the same tables. On JDK 17 the Vector API build is the
+ * slower of the two, see LetterMaskBenchmark, so it is off unless asked for.
+ *
+ */
+final class WordBucket {
+	static final int LETTERS = 26;
+	// builds the masks with the Vector API, or null to build them a word at a
+	// time. asked for with -Dhangman.vector=true, and needs both the
+	// jdk.incubator.vector module and VectorLetterMatcher on the classpath
+	private static final LetterMatcher MATCHER = vectorMatcher();
+	// true when the masks are built with the Vector API
+	static final boolean VECTOR = MATCHER != null;
+	static final WordBucket EMPTY = new WordBucket(0, 0, ByteBuffer.allocateDirect(0));
+	// words indexed together by indexByLetter
+	private static final int TILE_WORDS = 256;
+	private static final int MAX_LATIN_1 = 0xFF;
+	// stands in the rows for a character that does not fit in a byte
+	private static final byte WIDE_CHAR = 0;
+
+	// everything below is read with absolute gets only, so threads can share
+	// the buffers, and is never written once the constructor returns
+	private final int length;
+	private final int size;
+	// word i is bytes i * length to (i + 1) * length - 1, Latin-1
+	private final ByteBuffer rows;
+	// null unless some word has a character that does not fit in a byte, then
+	// such a word is kept here under its number as well
+	private final String[] wideWords;
+	// entry word * LETTERS + letter has bit i set when 'a' + letter is at index
+	// i of the word. words of up to 32 letters use the int table and longer
+	// words the long table. words too long for a long mask have neither
+	private final IntBuffer narrowMasks;
+	private final LongBuffer wideMasks;
+	// the number of longs in a bitset of this bucket's words
+	private final int blocks;
+	// bitset number position * LETTERS + letter, at index bitset * blocks, has
+	// the bits of the words with 'a' + letter at that position, and bitset
+	// number length * LETTERS + letter those of the words with it anywhere. 
+	// null for words too long for a long mask
+	private final LongBuffer bitsets;
+
+	// construct a bucket for words, which must all have the given length
+	WordBucket(int length, String[] words) {
+		this(length, words.length, pack(length, words), wideWords(words));
+	}
+
+	// construct a bucket for size Latin-1 words of the given length packed in
+	// rows, which may be a slice of a mapped file
+	WordBucket(int length, int size, ByteBuffer rows) {
+		this(length, size, rows, null);
+	}
+
+	// construct a bucket for packed rows and the words among them that do not
+	// fit in a byte per character
+	private WordBucket(int length, int size, ByteBuffer rows, String[] wideWords) {
+		this.length = length;
+		this.size = size;
+		this.rows = rows;
+		this.wideWords = wideWords;
+		this.blocks = blocks(size);
+		boolean playable = length <= Long.SIZE;
+		narrowMasks = length <= Integer.SIZE 
+				? allocate(maskBytes(size, length)).asIntBuffer() : null;
+		wideMasks = length > Integer.SIZE && playable 
+				? allocate(maskBytes(size, length)).asLongBuffer() : null;
+		bitsets = playable ? allocate(indexBytes(size, length)).asLongBuffer() : null;
+		if (length > 0 && playable) {
+			if (VECTOR) {
+				indexByLetter();
+			} else {
+				indexByWord();
+			}
+		}
+	}
+
+	// returns the Vector API matcher if it was asked for and can be loaded, or
+	// null
+	private static LetterMatcher vectorMatcher() {
+		if (!Boolean.getBoolean("hangman.vector")
+				|| ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+			return null;
+		}
+		try {
+			return (LetterMatcher) Class.forName("VectorLetterMatcher")
+					.getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			// built without the vector profile
+			return null;
+		}
+	}
+
+	// fills in the masks and bitsets one word at a time, finding every letter
+	// of the word in one pass over its characters
+	private void indexByWord() {
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < length; j++) {
+				int letter = rows.get(i * length + j) - 'a';
+				if (0 <= letter && letter < LETTERS) {
+					addPosition(i, j, letter);
+				}
+			}
+		}
+	}
+
+	// fills in the masks and bitsets one letter at a time, a tile of words at
+	// a time so the tile's masks stay in cache across the letters. 
+	// VectorLetterMatcher marks every character of the tile that is the
+	// letter, then each mark is placed in its word. the marks come in order,
+	// so the word is found by stepping along from the last one
+	private void indexByLetter() {
+		long[] matches = new long[blocks(TILE_WORDS * length)];
+		for (int first = 0; first < size; first += TILE_WORDS) {
+			int last = Math.min(size, first + TILE_WORDS);
+			for (int letter = 0; letter < LETTERS; letter++) {
+				MATCHER.match(rows, first * length, last * length, 
+						(byte) ('a' + letter), matches);
+				int word = first;
+				int start = 0;
+				for (int block = 0; block < matches.length; block++) {
+					for (long bits = matches[block]; bits != 0; bits &= bits - 1) {
+						int k = block * Long.SIZE + Long.numberOfTrailingZeros(bits);
+						while (k >= start + length) {
+							word++;
+							start += length;
+						}
+						addPosition(word, k - start, letter);
+					}
+				}
+			}
+		}
+	}
+
+	// records that 'a' + letter is at the given position of word i
+	private void addPosition(int i, int position, int letter) {
+		int entry = i * LETTERS + letter;
+		if (narrowMasks != null) {
+			narrowMasks.put(entry, narrowMasks.get(entry) | 1 << position);
+		} else {
+			wideMasks.put(entry, wideMasks.get(entry) | 1L << position);
+		}
+		setBit(wordsWith(position, letter), i);
+		setBit(wordsWith(letter), i);
+	}
+
+	// sets the bit of word i in the given bitset
+	private void setBit(int bitset, int i) {
+		int index = bitset * blocks + (i >>> 6);
+		bitsets.put(index, bitsets.get(index) | 1L << i);
+	}
+
+	// returns the length of every word in this bucket
+	int length() {
+		return length;
+	}
+
+	// returns the number of words in this bucket
+	int size() {
+		return size;
+	}
+
+	// returns the word with the given number
+	String word(int word) {
+		if (wideWords != null && wideWords[word] != null) {
+			return wideWords[word];
+		}
+		byte[] chars = new byte[length];
+		rows.get(word * length, chars);
+		return new String(chars, StandardCharsets.ISO_8859_1);
+	}
+
+	// returns the number of longs in a bitset of this bucket's words
+	int blocks() {
+		return blocks;
+	}
+
+	// returns the number of the bitset of the words with 'a' + letter at the
+	// given position. pre: 0 <= position < length(), 0 <= letter < 26
+	int wordsWith(int position, int letter) {
+		return position * LETTERS + letter;
+	}
+
+	// returns the number of the bitset of the words with 'a' + letter anywhere.
+	// pre: 0 <= letter < 26
+	int wordsWith(int letter) {
+		return length * LETTERS + letter;
+	}
+
+	// returns the given long of the given bitset. pre: length() <= 64
+	long bits(int bitset, int block) {
+		return bitsets.get(bitset * blocks + block);
+	}
+
+	// ands longs from to to - 1 of words with the same longs of the bitset
+	// pre: length() <= 64
+	void and(long[] words, int bitset, int from, int to) {
+		int offset = bitset * blocks;
+		for (int block = from; block < to; block++) {
+			words[block] &= bitsets.get(offset + block);
+		}
+	}
+
+	// clears the bits in longs from to to - 1 of words that are set in the
+	// bitset. pre: length() <= 64
+	void andNot(long[] words, int bitset, int from, int to) {
+		int offset = bitset * blocks;
+		for (int block = from; block < to; block++) {
+			words[block] &= ~bitsets.get(offset + block);
+		}
+	}
+
+	// returns a mask with bit i set when 'a' + letter is at index i of the
+	// word with the given number. pre: length() <= 64, 0 <= letter < 26
+	long positionMask(int word, int letter) {
+		int entry = word * LETTERS + letter;
+		return narrowMasks != null ? narrowMasks.get(entry) & 0xFFFFFFFFL 
+				: wideMasks.get(entry);
+	}
+
+	// returns how many bytes count words of the given length take in rows
+	static long wordBytes(int count, int length) {
+		return (long) count * length;
+	}
+
+	// returns how many bytes the letter masks of count words of the given
+	// length take
+	static long maskBytes(int count, int length) {
+		int maskBytes = length <= Integer.SIZE ? Integer.BYTES
+				: length <= Long.SIZE ? Long.BYTES : 0;
+		return (long) count * LETTERS * maskBytes;
+	}
+
+	// returns how many bytes the bitsets of the inverted index of count words
+	// of the given length take
+	static long indexBytes(int count, int length) {
+		int bitsets = length <= Long.SIZE ? (length + 1) * LETTERS : 0;
+		return (long) bitsets * blocks(count) * Long.BYTES;
+	}
+
+	// returns the number of longs in a bitset of count words
+	static int blocks(int count) {
+		return (count + Long.SIZE - 1) / Long.SIZE;
+	}
+
+	// returns a zeroed direct buffer of the given size in the native byte order
+	private static ByteBuffer allocate(long bytes) {
+		if (bytes > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many words of one length.");
+		}
+		return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+	}
+
+	// packs words, which must all have the given length, into rows
+	private static ByteBuffer pack(int length, String[] words) {
+		ByteBuffer rows = allocate(wordBytes(words.length, length));
+		for (int i = 0; i < words.length; i++) {
+			for (int j = 0; j < length; j++) {
+				char ch = words[i].charAt(j);
+				rows.put(i * length + j, ch <= MAX_LATIN_1 ? (byte) ch : WIDE_CHAR);
+			}
+		}
+		return rows;
+	}
+
+	// returns an array holding just the words that do not fit in a byte per
+	// character at their index in words, or null if every word fits
+	private static String[] wideWords(String[] words) {
+		String[] wideWords = null;
+		for (int i = 0; i < words.length; i++) {
+			for (int j = 0; j < words[i].length(); j++) {
+				if (words[i].charAt(j) > MAX_LATIN_1) {
+					if (wideWords == null) {
+						wideWords = new String[words.length];
+					}
+					wideWords[i] = words[i];
+					break;
+				}
+			}
+		}
+		return wideWords;
+	}
+}
@@ -0,0 +1,84 @@
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import hangman.jmh.Game;
+
+/**
+ * Lets the JMH benchmarks in hangman.jmh drive a HangmanManager. See Game for
+ * why this class is needed.
+ *
+ */
+public class HangmanBenchGame implements Game {
+	private static final HangmanDifficulty[] DIFFICULTIES = HangmanDifficulty.values();
+
+	private final HangmanDictionary dictionary;
+	private final HangmanManager manager;
+	private final SolverStrategy[] solvers;
+	// the solvers do not use random numbers, but the interface asks for them
+	private final SplittableRandom random = new SplittableRandom(0);
+
+	/**
+	 * Create a game over a new dictionary of the given words.
+	 *
+	 * @param words the words in the dictionary
+	 */
+	public HangmanBenchGame(Set<String> words) {
+		this(new HangmanDictionary(words));
+	}
+
+	// construct a game over the given dictionary
+	private HangmanBenchGame(HangmanDictionary dictionary) {
+		this.dictionary = dictionary;
+		this.manager = new HangmanManager(dictionary, false);
+		SolverStrategy.Objective[] objectives = SolverStrategy.Objective.values();
+		this.solvers = new SolverStrategy[objectives.length];
+		for (int i = 0; i < objectives.length; i++) {
+			solvers[i] = new SolverStrategy(objectives[i]);
+		}
+	}
+
+	public Game session() {
+		return new HangmanBenchGame(dictionary);
+	}
+
+	public void setOpeningCacheLimit(long bytes) {
+		dictionary.setOpeningCacheLimit(bytes);
+	}
+
+	public void setTransitionCacheLimit(long bytes) {
+		dictionary.setTransitionCacheLimit(bytes);
+	}
+
+	public int numWords(int length) {
+		return manager.numWords(length);
+	}
+
+	public void prepForRound(int wordLen, int numGuesses, int difficulty) {
+		manager.prepForRound(wordLen, numGuesses, DIFFICULTIES[difficulty]);
+	}
+
+	public int numWordsCurrent() {
+		return manager.numWordsCurrent();
+	}
+
+	public int getGuessesLeft() {
+		return manager.getGuessesLeft();
+	}
+
+	public String getPattern() {
+		return manager.getPattern();
+	}
+
+	public TreeMap<String, Integer> makeGuess(char guess) {
+		return manager.makeGuess(guess);
+	}
+
+	public String getSecretWord() {
+		return manager.getSecretWord();
+	}
+
+	public char solverGuess(int objective) {
+		return solvers[objective].nextGuess(manager, random);
+	}
+}
@@ -0,0 +1,104 @@
+package hangman.jmh;
+
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The parts of HangmanManager the benchmarks drive. JMH will not generate code
+ * for benchmarks in the default package, and code in a named package can not
+ * refer to classes in the default package where the game lives, so the
+ * benchmarks reach the game through this interface. HangmanBenchGame, in the
+ * default package, implements it by forwarding to a real HangmanManager. There
+ * is only one implementation, so the JIT inlines the calls.
+ *
+ */
+public interface Game {
+
+	/** The difficulties in the same order as HangmanDifficulty. */
+	String[] DIFFICULTIES = { "EASY", "MEDIUM", "HARD" };
+
+	/** The solver objectives in the same order as SolverStrategy.Objective. */
+	String[] OBJECTIVES = { "ENTROPY", "MINIMAX" };
+
+	/**
+	 * Create a game over a new dictionary of the given words.
+	 *
+	 * @param words the words in the dictionary
+	 * @return a game ready for prepForRound
+	 */
+	static Game create(Set<String> words) {
+		try {
+			return (Game) Class.forName("HangmanBenchGame").getConstructor(Set.class)
+					.newInstance(words);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("HangmanBenchGame is missing from the classpath.", e);
+		}
+	}
+
+	/**
+	 * Find the difficulty with the given name.
+	 *
+	 * @param name EASY, MEDIUM or HARD
+	 * @return the ordinal of the difficulty to pass to prepForRound
+	 */
+	static int difficulty(String name) {
+		for (int i = 0; i < DIFFICULTIES.length; i++) {
+			if (DIFFICULTIES[i].equals(name)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Unknown difficulty " + name);
+	}
+
+	/**
+	 * Find the solver objective with the given name.
+	 *
+	 * @param name ENTROPY or MINIMAX
+	 * @return the ordinal of the objective to pass to solverGuess
+	 */
+	static int objective(String name) {
+		for (int i = 0; i < OBJECTIVES.length; i++) {
+			if (OBJECTIVES[i].equals(name)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Unknown objective " + name);
+	}
+
+	/**
+	 * Create another game over the same dictionary, with its own round.
+	 *
+	 * @return a game ready for prepForRound that shares this game's dictionary
+	 */
+	Game session();
+
+	/** See HangmanDictionary.setOpeningCacheLimit. */
+	void setOpeningCacheLimit(long bytes);
+
+	/** See HangmanDictionary.setTransitionCacheLimit. */
+	void setTransitionCacheLimit(long bytes);
+
+	/** See HangmanManager.numWords. */
+	int numWords(int length);
+
+	/** See HangmanManager.prepForRound, difficulty is an ordinal. */
+	void prepForRound(int wordLen, int numGuesses, int difficulty);
+
+	/** See HangmanManager.numWordsCurrent. */
+	int numWordsCurrent();
+
+	/** See HangmanManager.getGuessesLeft. */
+	int getGuessesLeft();
+
+	/** See HangmanManager.getPattern. */
+	String getPattern();
+
+	/** See HangmanManager.makeGuess. */
+	TreeMap<String, Integer> makeGuess(char guess);
+
+	/** See HangmanManager.getSecretWord. */
+	String getSecretWord();
+
+	/** See SolverStrategy.nextGuess, objective is an ordinal. */
+	char solverGuess(int objective);
+}
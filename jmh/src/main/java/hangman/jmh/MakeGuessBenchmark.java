@@ -0,0 +1,83 @@
+package hangman.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures HangmanManager.makeGuess. makeGuess changes the state of the round,
+ * so every operation starts a new round with prepForRound first. firstGuess
+ * makes one guess against the full set of words of the given length, which is
+ * the most expensive guess of a round. playRound makes every guess in the
+ * sequence until the round is over. The dictionary's caches of opening moves
+ * and later guesses are off, so every guess looks at the words. Run with
+ * -p cached=true to measure guesses that come from the caches instead, as they
+ * do in a real game once the same state has been played.
+ * <br>
+ * <br>The sequences are common letters first, vowels only, and rare letters
+ * first, which keep the families large, split them finely, and mostly miss.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MakeGuessBenchmark {
+	private static final int WRONG_GUESSES = 10;
+
+	@Param({ "10000", "60000", "170000" })
+	private int dictionarySize;
+
+	@Param({ "4", "8", "12" })
+	private int wordLength;
+
+	@Param({ "EASY", "MEDIUM", "HARD" })
+	private String difficulty;
+
+	@Param({ "etaoinshrdlcumwfgypbvkjxqz", "aeiouy", "zqxjkvbpygfwmucldrhsnioate" })
+	private String guesses;
+
+	@Param({ "false" })
+	private boolean cached;
+
+	private Game game;
+	private int difficultyOrdinal;
+
+	@Setup
+	public void setUp() {
+		game = Game.create(Words.dictionary(dictionarySize));
+		if (!cached) {
+			game.setOpeningCacheLimit(0);
+			game.setTransitionCacheLimit(0);
+		}
+		difficultyOrdinal = Game.difficulty(difficulty);
+	}
+
+	@Benchmark
+	public Object firstGuess() {
+		game.prepForRound(wordLength, WRONG_GUESSES, difficultyOrdinal);
+		return game.makeGuess(guesses.charAt(0));
+	}
+
+	@Benchmark
+	public void playRound(Blackhole blackhole) {
+		game.prepForRound(wordLength, WRONG_GUESSES, difficultyOrdinal);
+		for (int i = 0; i < guesses.length() && game.getGuessesLeft() > 0 
+				&& game.getPattern().indexOf('-') >= 0; i++) {
+			blackhole.consume(game.makeGuess(guesses.charAt(i)));
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package hangman.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures HangmanManager.numWords, which HangmanMain calls to check the word
+ * length a player asks for.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumWordsBenchmark {
+
+	@Param({ "10000", "60000", "170000" })
+	private int dictionarySize;
+
+	@Param({ "4", "8", "12" })
+	private int wordLength;
+
+	private Game game;
+
+	@Setup
+	public void setUp() {
+		game = Game.create(Words.dictionary(dictionarySize));
+	}
+
+	@Benchmark
+	public int numWords() {
+		return game.numWords(wordLength);
+	}
+}
@@ -0,0 +1,53 @@
+package hangman.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures HangmanManager.prepForRound, which runs at the start of every game.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrepForRoundBenchmark {
+	private static final int WRONG_GUESSES = 10;
+
+	@Param({ "10000", "60000", "170000" })
+	private int dictionarySize;
+
+	@Param({ "4", "8", "12" })
+	private int wordLength;
+
+	@Param({ "EASY", "MEDIUM", "HARD" })
+	private String difficulty;
+
+	private Game game;
+	private int difficultyOrdinal;
+
+	@Setup
+	public void setUp() {
+		game = Game.create(Words.dictionary(dictionarySize));
+		difficultyOrdinal = Game.difficulty(difficulty);
+	}
+
+	@Benchmark
+	public int prepForRound() {
+		game.prepForRound(wordLength, WRONG_GUESSES, difficultyOrdinal);
+		return game.numWordsCurrent();
+	}
+}
@@ -0,0 +1,57 @@
+package hangman.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures HangmanManager.getSecretWord after the given number of guesses of
+ * common letters, so the live words range from a whole length bucket down to a
+ * small family.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecretWordBenchmark {
+	private static final int WRONG_GUESSES = 25;
+	private static final String GUESSES = "etaoinshrdlcumwfgypbvkjxqz";
+
+	@Param({ "10000", "60000", "170000" })
+	private int dictionarySize;
+
+	@Param({ "4", "8", "12" })
+	private int wordLength;
+
+	@Param({ "0", "2", "5" })
+	private int guessesMade;
+
+	private Game game;
+
+	@Setup
+	public void setUp() {
+		game = Game.create(Words.dictionary(dictionarySize));
+		game.prepForRound(wordLength, WRONG_GUESSES, Game.difficulty("HARD"));
+		for (int i = 0; i < guessesMade; i++) {
+			game.makeGuess(GUESSES.charAt(i));
+		}
+	}
+
+	@Benchmark
+	public String getSecretWord() {
+		return game.getSecretWord();
+	}
+}
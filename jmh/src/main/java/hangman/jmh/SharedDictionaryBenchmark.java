@@ -0,0 +1,94 @@
+package hangman.jmh;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Measures rounds played at the same time by games that share one dictionary,
+ * the way a server with many players would run them. Every thread plays its
+ * own rounds, and picks each guess at random from the few most common letters
+ * it has not guessed yet, so players often pass through the same states
+ * without all playing the same round. transitionCacheBytes sets the limit of
+ * the dictionary's cache of later guesses, 0 to turn it off, so the runs
+ * compare every game working its guesses out against the games looking them
+ * up in the shared cache. Use -t to change the number of threads.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class SharedDictionaryBenchmark {
+	private static final int WRONG_GUESSES = 10;
+	private static final String LETTERS = "etaoinshrdlcumwfgypbvkjxqz";
+	// how many of the most common letters left a guess is picked from
+	private static final int CHOICES = 4;
+
+	@Param({ "60000", "170000" })
+	private int dictionarySize;
+
+	@Param({ "5", "8" })
+	private int wordLength;
+
+	@Param({ "EASY", "HARD" })
+	private String difficulty;
+
+	@Param({ "0", "16777216" })
+	private long transitionCacheBytes;
+
+	private Game game;
+	private int difficultyOrdinal;
+
+	@Setup
+	public void setUp() {
+		game = Game.create(Words.dictionary(dictionarySize));
+		game.setTransitionCacheLimit(transitionCacheBytes);
+		difficultyOrdinal = Game.difficulty(difficulty);
+	}
+
+	/**
+	 * One player's game over the shared dictionary.
+	 */
+	@State(Scope.Thread)
+	public static class Session {
+		private Game game;
+		private SplittableRandom random;
+
+		@Setup
+		public void setUp(SharedDictionaryBenchmark shared, ThreadParams thread) {
+			game = shared.game.session();
+			random = new SplittableRandom(thread.getThreadIndex());
+		}
+	}
+
+	@Benchmark
+	public void playRound(Session session, Blackhole blackhole) {
+		Game game = session.game;
+		game.prepForRound(wordLength, WRONG_GUESSES, difficultyOrdinal);
+		StringBuilder left = new StringBuilder(LETTERS);
+		while (game.getGuessesLeft() > 0 && game.getPattern().indexOf('-') >= 0) {
+			int pick = session.random.nextInt(Math.min(CHOICES, left.length()));
+			char guess = left.charAt(pick);
+			left.deleteCharAt(pick);
+			blackhole.consume(game.makeGuess(guess));
+		}
+	}
+}
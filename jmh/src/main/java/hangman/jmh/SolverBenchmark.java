@@ -0,0 +1,77 @@
+package hangman.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures rounds where SolverStrategy picks every letter, the way
+ * HangmanSimulator plays them. Unlike the fixed sequences of
+ * MakeGuessBenchmark, each guess depends on the words still live, so makeGuess
+ * sees the splits a good player forces on it. firstGuess asks the solver for
+ * one letter against the full set of words of the given length. playRound
+ * lets the solver play a whole round, and so measures the solver and makeGuess
+ * together. The solver is deterministic, so every round plays the same
+ * guesses. The dictionary's caches of opening moves and later guesses are
+ * off, so makeGuess works every one out instead of replaying it.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+	private static final int WRONG_GUESSES = 10;
+
+	@Param({ "10000", "60000", "170000" })
+	private int dictionarySize;
+
+	@Param({ "4", "8", "12" })
+	private int wordLength;
+
+	@Param({ "EASY", "HARD" })
+	private String difficulty;
+
+	@Param({ "ENTROPY", "MINIMAX" })
+	private String objective;
+
+	private Game game;
+	private int difficultyOrdinal;
+	private int objectiveOrdinal;
+
+	@Setup
+	public void setUp() {
+		game = Game.create(Words.dictionary(dictionarySize));
+		game.setOpeningCacheLimit(0);
+		game.setTransitionCacheLimit(0);
+		difficultyOrdinal = Game.difficulty(difficulty);
+		objectiveOrdinal = Game.objective(objective);
+	}
+
+	@Benchmark
+	public char firstGuess() {
+		game.prepForRound(wordLength, WRONG_GUESSES, difficultyOrdinal);
+		return game.solverGuess(objectiveOrdinal);
+	}
+
+	@Benchmark
+	public void playRound(Blackhole blackhole) {
+		game.prepForRound(wordLength, WRONG_GUESSES, difficultyOrdinal);
+		while (game.getGuessesLeft() > 0 && game.getPattern().indexOf('-') >= 0) {
+			blackhole.consume(game.makeGuess(game.solverGuess(objectiveOrdinal)));
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package hangman.jmh;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Dictionaries for the benchmarks. By default the words are made up, with
+ * English letter frequencies and word lengths, from a fixed seed so every run
+ * sees the same words. Set the system property hangman.dictionary to a word
+ * list to sample real words from it instead.
+ *
+ */
+final class Words {
+	private static final String DICTIONARY_PROPERTY = "hangman.dictionary";
+	private static final long SEED = 314;
+	private static final String LETTERS = "etaoinshrdlcumwfgypbvkjxqz";
+	// relative frequency of each letter in LETTERS, in hundredths of a percent
+	private static final int[] LETTER_WEIGHTS = { 1270, 906, 817, 751, 697, 675, 633, 609,
+			599, 425, 403, 278, 276, 241, 236, 223, 202, 197, 193, 149, 98, 77, 15, 15, 10, 7 };
+	// relative number of dictionary words of each length, from 2 letters up
+	private static final int[] LENGTH_WEIGHTS = { 1, 4, 9, 15, 19, 21, 20, 17, 13, 10, 7, 5, 3,
+			2, 1, 1 };
+	private static final int MIN_LENGTH = 2;
+
+	private Words() {
+	}
+
+	/**
+	 * Get a dictionary with the given number of distinct lowercase words.
+	 *
+	 * @param size the number of words
+	 * @return the words, in a fixed order
+	 */
+	static Set<String> dictionary(int size) {
+		String file = System.getProperty(DICTIONARY_PROPERTY);
+		Random random = new Random(SEED);
+		return file == null ? generate(size, random) : sample(file, size, random);
+	}
+
+	// makes up size words
+	private static Set<String> generate(int size, Random random) {
+		int letterTotal = sum(LETTER_WEIGHTS);
+		int lengthTotal = sum(LENGTH_WEIGHTS);
+		Set<String> words = new LinkedHashSet<String>();
+		StringBuilder word = new StringBuilder();
+		while (words.size() < size) {
+			int length = MIN_LENGTH + pick(LENGTH_WEIGHTS, random.nextInt(lengthTotal));
+			word.setLength(0);
+			for (int i = 0; i < length; i++) {
+				word.append(LETTERS.charAt(pick(LETTER_WEIGHTS, random.nextInt(letterTotal))));
+			}
+			words.add(word.toString());
+		}
+		return words;
+	}
+
+	// takes size words at random from the word list in file
+	private static Set<String> sample(String file, int size, Random random) {
+		List<String> all = new ArrayList<String>();
+		try {
+			for (String word : Files.readString(Paths.get(file)).split("\\s+")) {
+				if (!word.isEmpty()) {
+					all.add(word.toLowerCase());
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		Collections.shuffle(all, random);
+		Set<String> words = new LinkedHashSet<String>();
+		for (int i = 0; i < all.size() && words.size() < size; i++) {
+			words.add(all.get(i));
+		}
+		return words;
+	}
+
+	// returns the index whose weight covers the given point in [0, sum(weights))
+	private static int pick(int[] weights, int point) {
+		int index = 0;
+		while (point >= weights[index]) {
+			point -= weights[index];
+			index++;
+		}
+		return index;
+	}
+
+	// returns the total of the weights
+	private static int sum(int[] weights) {
+		int total = 0;
+		for (int weight : weights) {
+			total += weight;
+		}
+		return total;
+	}
+}
@@ -0,0 +1,65 @@
+package hangman.jmh;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building the letter masks and bitsets for the words of one length,
+ * which is where the dictionary finds every letter in every word so makeGuess
+ * does not have to. scalar finds them a word at a time, the default. vector
+ * runs with -Dhangman.vector=true and the jdk.incubator.vector module, so they
+ * are found a letter at a time with the Vector API. Each operation builds a
+ * dictionary of just the words of the given length.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LetterMaskBenchmark {
+
+	@Param({ "10000", "60000", "170000" })
+	private int dictionarySize;
+
+	@Param({ "4", "8", "12" })
+	private int wordLength;
+
+	private Set<String> words;
+
+	@Setup
+	public void setUp() {
+		words = new TreeSet<>();
+		for (String word : Words.dictionary(dictionarySize)) {
+			if (word.length() == wordLength) {
+				words.add(word);
+			}
+		}
+	}
+
+	@Benchmark
+	@Fork(1)
+	public int scalar() {
+		return Game.create(words).numWords(wordLength);
+	}
+
+	@Benchmark
+	@Fork(value = 1, jvmArgsAppend = { "--add-modules=jdk.incubator.vector",
+			"-Dhangman.vector=true" })
+	public int vector() {
+		return Game.create(words).numWords(wordLength);
+	}
+}
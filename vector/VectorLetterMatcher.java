@@ -0,0 +1,39 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Finds where a letter appears in a run of packed words with the incubating
+ * JDK Vector API, comparing a whole vector of characters with the letter in
+ * one instruction. It is only compiled by the vector Maven profile, and
+ * WordBucket only loads it when run with -Dhangman.vector=true and the
+ * jdk.incubator.vector module is present, that is when the JVM was started
+ * with --add-modules jdk.incubator.vector.
+ *
+ */
+final class VectorLetterMatcher implements LetterMatcher {
+	// the widest vector of bytes the hardware handles well, but never more
+	// than 64 lanes so a comparison always fits in the long of toLong
+	private static final VectorSpecies<Byte> SPECIES =
+			ByteVector.SPECIES_PREFERRED.length() <= Long.SIZE
+					? ByteVector.SPECIES_PREFERRED : ByteVector.SPECIES_512;
+
+	public void match(ByteBuffer rows, int from, int to, byte letter, long[] matches) {
+		Arrays.fill(matches, 0);
+		int bound = from + SPECIES.loopBound(to - from);
+		int k = from;
+		for (; k < bound; k += SPECIES.length()) {
+			long bits = ByteVector.fromByteBuffer(SPECIES, rows, k, ByteOrder.nativeOrder())
+					.eq(letter).toLong();
+			matches[(k - from) >>> 6] |= bits << (k - from);
+		}
+		for (; k < to; k++) {
+			if (rows.get(k) == letter) {
+				matches[(k - from) >>> 6] |= 1L << (k - from);
+			}
+		}
+	}
+}